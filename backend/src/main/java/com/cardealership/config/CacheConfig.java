@@ -0,0 +1,44 @@
+package com.cardealership.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CacheConfig {
+    public static final String CAR_BY_ID = "carById";
+    public static final String CAR_SEARCH = "carSearch";
+    public static final String PRINCIPALS = "principals";
+    public static final String VERIFIED_TOKENS = "verifiedTokens";
+    public static final String LISTING_RESPONSES = "listingResponses";
+
+    @Value("${cardealership.cache.car-by-id:maximumSize=2000,expireAfterWrite=10m,recordStats}")
+    private String carByIdSpec;
+
+    @Value("${cardealership.cache.car-search:maximumSize=500,expireAfterWrite=2m,recordStats}")
+    private String carSearchSpec;
+
+    @Value("${cardealership.cache.principals:maximumSize=10000,expireAfterWrite=5m,recordStats}")
+    private String principalsSpec;
+
+    @Value("${cardealership.cache.verified-tokens:maximumSize=10000,expireAfterWrite=1m,recordStats}")
+    private String verifiedTokensSpec;
+
+    @Value("${cardealership.cache.listing-responses:maximumSize=32,recordStats}")
+    private String listingResponsesSpec;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder().maximumSize(1000).recordStats());
+        cacheManager.registerCustomCache(CAR_BY_ID, Caffeine.from(carByIdSpec).build());
+        cacheManager.registerCustomCache(CAR_SEARCH, Caffeine.from(carSearchSpec).build());
+        cacheManager.registerCustomCache(PRINCIPALS, Caffeine.from(principalsSpec).build());
+        cacheManager.registerCustomCache(VERIFIED_TOKENS, Caffeine.from(verifiedTokensSpec).build());
+        cacheManager.registerCustomCache(LISTING_RESPONSES, Caffeine.from(listingResponsesSpec).build());
+        return cacheManager;
+    }
+}
@@ -0,0 +1,35 @@
+package com.cardealership.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.server.Compression;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.boot.web.servlet.server.ConfigurableServletWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Gzips text responses for clients that send {@code Accept-Encoding: gzip}. Images are already
+ * compressed and are left out; small bodies are sent as-is since gzip would not pay for itself.
+ */
+@Configuration
+public class CompressionConfig {
+
+    @Value("${cardealership.compression.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cardealership.compression.min-response-size:1KB}")
+    private DataSize minResponseSize;
+
+    @Bean
+    public WebServerFactoryCustomizer<ConfigurableServletWebServerFactory> compressionCustomizer() {
+        return factory -> {
+            Compression compression = new Compression();
+            compression.setEnabled(enabled);
+            compression.setMinResponseSize(minResponseSize);
+            compression.setMimeTypes(new String[] {"application/json", "application/x-ndjson", "text/csv",
+                    "text/plain", "text/html", "text/css", "application/javascript"});
+            factory.setCompression(compression);
+        };
+    }
+}
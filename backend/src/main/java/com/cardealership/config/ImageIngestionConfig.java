@@ -0,0 +1,33 @@
+package com.cardealership.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ImageIngestionConfig {
+    public static final String EXECUTOR = "imageIngestionExecutor";
+
+    @Value("${cardealership.images.ingest.threads:4}")
+    private int threads;
+
+    @Value("${cardealership.images.ingest.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Bean(name = EXECUTOR)
+    public ThreadPoolTaskExecutor imageIngestionExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-ingest-");
+        // A full queue slows the submitting thread down instead of dropping uploads
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,48 @@
+package com.cardealership.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class MailConfig {
+    public static final String DISPATCH_EXECUTOR = "leadDispatchExecutor";
+    private static final String[] TIMEOUT_PROPERTIES = {
+            "mail.smtp.connectiontimeout", "mail.smtp.timeout", "mail.smtp.writetimeout"
+    };
+
+    /**
+     * JavaMail waits forever by default, so a hung mail server would hold its caller for good.
+     * Timeouts set through {@code spring.mail.properties} take precedence.
+     */
+    @Bean
+    public static BeanPostProcessor mailTimeoutPostProcessor(
+            @Value("${cardealership.mail.timeout-ms:10000}") long timeoutMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof JavaMailSenderImpl sender) {
+                    for (String property : TIMEOUT_PROPERTIES) {
+                        sender.getJavaMailProperties().putIfAbsent(property, String.valueOf(timeoutMs));
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Lead delivery talks SMTP off the shared scheduler thread, which also runs key reloads and purges
+    @Bean(name = DISPATCH_EXECUTOR)
+    public ThreadPoolTaskExecutor leadDispatchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("lead-dispatch-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,32 @@
+package com.cardealership.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class PasswordHashingConfig {
+    public static final String EXECUTOR = "passwordHashingExecutor";
+
+    @Value("${cardealership.auth.hash-threads:2}")
+    private int threads;
+
+    @Value("${cardealership.auth.hash-queue-capacity:50}")
+    private int queueCapacity;
+
+    @Bean(name = EXECUTOR)
+    public ThreadPoolTaskExecutor passwordHashingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hash-");
+        // A full queue rejects the login (503) instead of tying up request threads
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
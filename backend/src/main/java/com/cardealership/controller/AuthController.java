@@ -1,18 +1,24 @@
 package com.cardealership.controller;
 
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -20,17 +26,22 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.cardealership.model.ERole;
-import com.cardealership.model.Role;
+import com.cardealership.config.PasswordHashingConfig;
 import com.cardealership.model.User;
 import com.cardealership.payload.request.LoginRequest;
 import com.cardealership.payload.request.SignupRequest;
+import com.cardealership.payload.request.TokenRefreshRequest;
 import com.cardealership.payload.response.JwtResponse;
 import com.cardealership.payload.response.MessageResponse;
-import com.cardealership.repository.RoleRepository;
 import com.cardealership.repository.UserRepository;
 import com.cardealership.security.jwt.JwtUtils;
+import com.cardealership.security.services.AuthMetrics;
+import com.cardealership.security.services.LoginRateLimiter;
+import com.cardealership.security.services.RefreshTokenService;
+import com.cardealership.security.services.RoleCache;
+import com.cardealership.security.services.TokenRefreshException;
 import com.cardealership.security.services.UserDetailsImpl;
+import com.cardealership.service.Constraints;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -43,7 +54,7 @@ public class AuthController {
     UserRepository userRepository;
 
     @Autowired
-    RoleRepository roleRepository;
+    RoleCache roleCache;
 
     @Autowired
     PasswordEncoder encoder;
@@ -51,13 +62,58 @@ public class AuthController {
     @Autowired
     JwtUtils jwtUtils;
 
+    @Autowired
+    RefreshTokenService refreshTokenService;
+
+    @Autowired
+    LoginRateLimiter loginRateLimiter;
+
+    @Autowired
+    AuthMetrics authMetrics;
+
+    @Autowired
+    @Qualifier(PasswordHashingConfig.EXECUTOR)
+    Executor passwordHashingExecutor;
+
     @PostMapping("/signin")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+    public CompletableFuture<ResponseEntity<?>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest,
+            HttpServletRequest request) {
+        return throttled(request, loginRequest.getUsername(), () -> signIn(loginRequest));
+    }
+
+    @PostMapping("/signup")
+    public CompletableFuture<ResponseEntity<?>> registerUser(@Valid @RequestBody SignupRequest signUpRequest,
+            HttpServletRequest request) {
+        return throttled(request, null, () -> signUp(signUpRequest));
+    }
+
+    /**
+     * Runs a password-hashing request on the bounded hashing executor so BCrypt never occupies a
+     * request thread, after checking the rate limits.
+     */
+    private CompletableFuture<ResponseEntity<?>> throttled(HttpServletRequest request, String username,
+            Supplier<ResponseEntity<?>> action) {
+        long retryAfter = loginRateLimiter.tryAcquire(request.getRemoteAddr(), username);
+        if (retryAfter > 0) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                    .body(new MessageResponse("Error: Too many attempts, please try again later")));
+        }
+        try {
+            return CompletableFuture.supplyAsync(action, passwordHashingExecutor);
+        } catch (RejectedExecutionException e) {
+            authMetrics.recordQueueRejected();
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new MessageResponse("Error: Server is busy, please try again")));
+        }
+    }
+
+    private ResponseEntity<?> signIn(LoginRequest loginRequest) {
         try {
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
 
-            SecurityContextHolder.getContext().setAuthentication(authentication);
             String jwt = jwtUtils.generateJwtToken(authentication);
 
             UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
@@ -65,7 +121,10 @@ public class AuthController {
                     .map(item -> item.getAuthority())
                     .collect(Collectors.toList());
 
+            String refreshToken = refreshTokenService.issue(userDetails.getId());
+
             return ResponseEntity.ok(new JwtResponse(jwt,
+                    refreshToken,
                     userDetails.getId(),
                     userDetails.getUsername(),
                     userDetails.getEmail(),
@@ -75,51 +134,57 @@ public class AuthController {
         }
     }
 
-    @PostMapping("/signup")
-    public ResponseEntity<?> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
-        if (userRepository.existsByUsername(signUpRequest.getUsername())) {
-            return ResponseEntity
-                    .badRequest()
-                    .body(new MessageResponse("Error: Username is already taken!"));
-        }
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refreshToken(@Valid @RequestBody TokenRefreshRequest request) {
+        try {
+            RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+            UserDetailsImpl userDetails = rotation.getPrincipal();
+            List<String> roles = userDetails.getAuthorities().stream()
+                    .map(item -> item.getAuthority())
+                    .collect(Collectors.toList());
 
-        if (userRepository.existsByEmail(signUpRequest.getEmail())) {
-            return ResponseEntity
-                    .badRequest()
-                    .body(new MessageResponse("Error: Email is already in use!"));
+            return ResponseEntity.ok(new JwtResponse(jwtUtils.generateJwtToken(userDetails),
+                    rotation.getRefreshToken(),
+                    userDetails.getId(),
+                    userDetails.getUsername(),
+                    userDetails.getEmail(),
+                    roles));
+        } catch (TokenRefreshException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new MessageResponse("Error: " + e.getMessage()));
         }
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@Valid @RequestBody TokenRefreshRequest request) {
+        refreshTokenService.revoke(request.getRefreshToken());
+        return ResponseEntity.ok(new MessageResponse("Logged out successfully!"));
+    }
 
+    // Drivers report the constraint with extras such as a schema prefix or index suffix, so match by containment
+    private ResponseEntity<?> signUp(SignupRequest signUpRequest) {
         // Create new user's account
         User user = new User(signUpRequest.getUsername(),
                 signUpRequest.getEmail(),
                 encoder.encode(signUpRequest.getPassword()));
+        user.setRoles(roleCache.resolve(signUpRequest.getRoles()));
 
-        Set<String> strRoles = signUpRequest.getRoles();
-        Set<Role> roles = new HashSet<>();
-
-        if (strRoles == null || strRoles.isEmpty()) {
-            Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-                    .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-            roles.add(userRole);
-        } else {
-            strRoles.forEach(role -> {
-                switch (role) {
-                    case "admin":
-                        Role adminRole = roleRepository.findByName(ERole.ROLE_ADMIN)
-                                .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-                        roles.add(adminRole);
-                        break;
-                    default:
-                        Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-                                .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-                        roles.add(userRole);
-                }
-            });
+        // The unique constraints decide whether the username or email is taken
+        try {
+            userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            String message;
+            if (Constraints.violates(e, User.EMAIL_CONSTRAINT)) {
+                message = "Error: Email is already in use!";
+            } else if (Constraints.violates(e, User.USERNAME_CONSTRAINT)) {
+                message = "Error: Username is already taken!";
+            } else {
+                throw e;
+            }
+            return ResponseEntity
+                    .badRequest()
+                    .body(new MessageResponse(message));
         }
 
-        user.setRoles(roles);
-        userRepository.save(user);
-
         return ResponseEntity.ok(new MessageResponse("User registered successfully!"));
     }
 } 
\ No newline at end of file
@@ -1,16 +1,48 @@
 package com.cardealership.controller;
 
+import com.cardealership.dto.CarDetailDTO;
+import com.cardealership.dto.CarListingDTO;
+import com.cardealership.dto.CarSearchCriteria;
+import com.cardealership.dto.CursorPageDTO;
+import com.cardealership.dto.FacetResultDTO;
+import com.cardealership.dto.CarSummaryDTO;
+import com.cardealership.dto.ImageStatusDTO;
 import com.cardealership.model.Car;
 import com.cardealership.model.CarImage;
+import com.cardealership.payload.request.CarStatusRequest;
+import com.cardealership.payload.response.MessageResponse;
 import com.cardealership.service.CarService;
+import com.cardealership.service.CarSpecifications;
+import com.cardealership.service.CarTextSearchService;
+import com.cardealership.service.Constraints;
+import com.cardealership.service.ETags;
+import com.cardealership.service.ImageIngestionService;
+import com.cardealership.service.InventorySnapshotService;
+import com.cardealership.service.ListingResponseCache;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.math.BigDecimal;
 import java.util.Optional;
@@ -20,98 +52,268 @@ import java.util.Optional;
 @CrossOrigin(origins = "http://localhost:3000")
 public class CarController {
     private static final Logger logger = LoggerFactory.getLogger(CarController.class);
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
 
     @Autowired
     private CarService carService;
 
+    @Autowired
+    private CarTextSearchService carTextSearchService;
+
+    @Autowired
+    private InventorySnapshotService inventorySnapshotService;
+
+    @Autowired
+    private ImageIngestionService imageIngestionService;
+
+    @Autowired
+    private ListingResponseCache listingResponseCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping
-    public ResponseEntity<List<Car>> getAllCars() {
+    public ResponseEntity<byte[]> getAllCars(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         logger.debug("GET /api/cars - Getting all cars");
-        return ResponseEntity.ok(carService.getAllCars());
+        return listingResponseCache.respond("all", () -> summaries(carService.getAllCars()), ifNoneMatch, acceptEncoding);
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<?> getCarsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort) {
+        logger.debug("GET /api/cars/page - Getting cars page: cursor={}, size={}, sort={}", cursor, size, sort);
+        try {
+            CursorPageDTO<Car> page = carService.getCarsPage(cursor, size, sort);
+            return ResponseEntity.ok(new CursorPageDTO<>(summaries(page.getContent()), page.getNextCursor(),
+                    page.isHasMore(), page.getSize()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/listing")
+    public ResponseEntity<?> getCarListingPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort) {
+        logger.debug("GET /api/cars/listing - Getting listing page: cursor={}, size={}, sort={}", cursor, size, sort);
+        try {
+            CursorPageDTO<CarListingDTO> page = carService.getCarListingPage(cursor, size, sort);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamCars() {
+        logger.debug("GET /api/cars/stream - Streaming all cars");
+        StreamingResponseBody body = out -> carService.streamAllCars(car -> writeLine(out, CarDetailDTO.from(car)));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Car> getCarById(@PathVariable Long id) {
+    public ResponseEntity<CarDetailDTO> getCarById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         logger.debug("GET /api/cars/{} - Getting car by ID", id);
         Optional<Car> car = carService.getCarById(id);
-        return car.map(ResponseEntity::ok)
-                .orElseGet(() -> {
-                    logger.debug("Car with ID {} not found", id);
-                    return ResponseEntity.notFound().build();
-                });
+        if (car.isEmpty()) {
+            logger.debug("Car with ID {} not found", id);
+            return ResponseEntity.notFound().build();
+        }
+        String etag = ETags.forVersion(car.get().getVersion());
+        if (ETags.noneMatchHits(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(CarDetailDTO.from(car.get()));
     }
 
     @PostMapping
-    public ResponseEntity<Car> addCar(
+    public ResponseEntity<CarDetailDTO> addCar(
             @RequestPart("car") Car car,
             @RequestPart(value = "images", required = false) List<MultipartFile> images) {
         logger.debug("POST /api/cars - Adding new car: {}", car);
         Car savedCar = carService.saveCar(car, images);
         logger.debug("Car added successfully with ID: {}", savedCar.getId());
-        return ResponseEntity.ok(savedCar);
+        return ResponseEntity.ok().eTag(ETags.forVersion(savedCar.getVersion())).body(CarDetailDTO.from(savedCar));
     }
 
     @PutMapping(value = "/{id}", consumes = {MediaType.MULTIPART_FORM_DATA_VALUE})
-    public ResponseEntity<Car> updateCar(
+    public ResponseEntity<CarDetailDTO> updateCar(
             @PathVariable Long id,
             @RequestPart("car") Car car,
-            @RequestPart(value = "images", required = false) List<MultipartFile> images) {
+            @RequestPart(value = "images", required = false) List<MultipartFile> images,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         logger.debug("PUT /api/cars/{} - Updating car: {}", id, car);
-        Optional<Car> existingCar = carService.getCarById(id);
-        if (existingCar.isPresent()) {
-            car.setId(id);
-            Car updatedCar = carService.updateCar(car, images);
+        try {
+            Optional<Car> updatedCar = carService.updateCar(id, car, images, ETags.versionFromIfMatch(ifMatch));
+            if (updatedCar.isEmpty()) {
+                logger.debug("Car with ID {} not found for update", id);
+                return ResponseEntity.notFound().build();
+            }
             logger.debug("Car with ID {} updated successfully", id);
-            return ResponseEntity.ok(updatedCar);
+            return ResponseEntity.ok().eTag(ETags.forVersion(updatedCar.get().getVersion()))
+                    .body(CarDetailDTO.from(updatedCar.get()));
+        } catch (OptimisticLockingFailureException e) {
+            logger.debug("Car with ID {} changed since the client read it", id);
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> patchCar(
+            @PathVariable Long id,
+            @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        logger.debug("PATCH /api/cars/{} - Patching car: {}", id, patch);
+        try {
+            Optional<Car> patchedCar = carService.patchCar(id, patch, ETags.versionFromIfMatch(ifMatch));
+            if (patchedCar.isEmpty()) {
+                logger.debug("Car with ID {} not found for patch", id);
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok().eTag(ETags.forVersion(patchedCar.get().getVersion()))
+                    .body(CarDetailDTO.from(patchedCar.get()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+        } catch (OptimisticLockingFailureException e) {
+            logger.debug("Car with ID {} changed since the client read it", id);
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (DataIntegrityViolationException e) {
+            if (Constraints.violates(e, Car.VIN_CONSTRAINT)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse("Error: VIN is already in use!"));
+            }
+            // Any other constraint, e.g. a value too long for its column, was broken by the patch body
+            logger.debug("Patch for car {} violates a constraint: {}", id, e.getMostSpecificCause().getMessage());
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: Patched car is not valid"));
+        }
+    }
+
+    @PutMapping("/{id}/status")
+    public ResponseEntity<?> updateCarStatus(
+            @PathVariable Long id,
+            @Valid @RequestBody CarStatusRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        logger.debug("PUT /api/cars/{}/status - Setting status to {}", id, request.getStatus());
+        try {
+            Optional<Long> version = carService.updateStatus(id, request.getStatus(), ETags.versionFromIfMatch(ifMatch));
+            if (version.isEmpty()) {
+                logger.debug("Car with ID {} not found for status change", id);
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.noContent().eTag(ETags.forVersion(version.get())).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+        } catch (OptimisticLockingFailureException e) {
+            logger.debug("Car with ID {} changed since the client read it", id);
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
         }
-        logger.debug("Car with ID {} not found for update", id);
-        return ResponseEntity.notFound().build();
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteCar(@PathVariable Long id) {
+    public ResponseEntity<Void> deleteCar(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         logger.debug("DELETE /api/cars/{} - Deleting car", id);
-        Optional<Car> car = carService.getCarById(id);
-        if (car.isPresent()) {
-            carService.deleteCar(id);
-            logger.debug("Car with ID {} deleted successfully", id);
-            return ResponseEntity.ok().build();
+        try {
+            if (!carService.deleteCar(id, ETags.versionFromIfMatch(ifMatch))) {
+                logger.debug("Car with ID {} not found for deletion", id);
+                return ResponseEntity.notFound().build();
+            }
+        } catch (OptimisticLockingFailureException e) {
+            logger.debug("Car with ID {} changed before it could be deleted", id);
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
         }
-        logger.debug("Car with ID {} not found for deletion", id);
-        return ResponseEntity.notFound().build();
+        logger.debug("Car with ID {} deleted successfully", id);
+        return ResponseEntity.ok().build();
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<Car>> searchCars(
-            @RequestParam(required = false) String make,
-            @RequestParam(required = false) String model,
-            @RequestParam(required = false) Integer minYear,
-            @RequestParam(required = false) Integer maxYear,
-            @RequestParam(required = false) Double minPrice,
-            @RequestParam(required = false) Double maxPrice) {
-        logger.debug("GET /api/cars/search - Searching cars with params: make={}, model={}, minYear={}, maxYear={}, minPrice={}, maxPrice={}",
-                make, model, minYear, maxYear, minPrice, maxPrice);
-        return ResponseEntity.ok(carService.searchCars(make, model, minYear, maxYear, minPrice, maxPrice));
+    public ResponseEntity<?> searchCars(
+            @ModelAttribute CarSearchCriteria criteria,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String sort) {
+        logger.debug("GET /api/cars/search - Searching cars with criteria: {}, page={}, size={}, sort={}",
+                criteria, page, size, sort);
+        try {
+            Pageable pageable = PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE)),
+                    CarSpecifications.parseSort(sort));
+            Page<Car> result = carService.searchCars(criteria, pageable);
+            return ResponseEntity.ok()
+                    .header("X-Total-Count", String.valueOf(result.getTotalElements()))
+                    .body(summaries(result.getContent()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<FacetResultDTO> getFacets(@ModelAttribute CarSearchCriteria criteria) {
+        logger.debug("GET /api/cars/facets - Computing facets for criteria: {}", criteria);
+        return ResponseEntity.ok(inventorySnapshotService.facets(criteria));
+    }
+
+    @GetMapping("/search/text")
+    public ResponseEntity<List<CarSummaryDTO>> searchCarsByText(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "20") int limit) {
+        logger.debug("GET /api/cars/search/text - Full-text search: q={}, limit={}", query, limit);
+        return ResponseEntity.ok(summaries(carTextSearchService.search(query, limit)));
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Car>> getCarsByStatus(@PathVariable String status) {
+    public ResponseEntity<byte[]> getCarsByStatus(
+            @PathVariable String status,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         logger.debug("GET /api/cars/status/{} - Getting cars by status", status);
-        return ResponseEntity.ok(carService.getCarsByStatus(status));
+        return listingResponseCache.respond("status:" + status, () -> summaries(carService.getCarsByStatus(status)),
+                ifNoneMatch, acceptEncoding);
     }
 
     @PutMapping(value = "/{id}/images", consumes = {MediaType.MULTIPART_FORM_DATA_VALUE})
-    public ResponseEntity<Car> updateCarImages(
+    public ResponseEntity<CarDetailDTO> updateCarImages(
             @PathVariable Long id,
             @RequestParam("images") List<MultipartFile> images) {
         logger.debug("PUT /api/cars/{}/images - Updating car images", id);
         try {
             Car updatedCar = carService.updateCarImages(id, images);
             logger.debug("Car images updated successfully for car ID: {}", id);
-            return ResponseEntity.ok(updatedCar);
+            return ResponseEntity.ok(CarDetailDTO.from(updatedCar));
         } catch (RuntimeException e) {
             logger.error("Error updating car images: {}", e.getMessage());
             return ResponseEntity.notFound().build();
         }
     }
-} 
\ No newline at end of file
+
+    @GetMapping("/{id}/images/status")
+    public ResponseEntity<List<ImageStatusDTO>> getCarImageStatuses(@PathVariable Long id) {
+        logger.debug("GET /api/cars/{}/images/status - Getting image ingestion status", id);
+        return ResponseEntity.ok(imageIngestionService.getImageStatuses(id));
+    }
+
+    private List<CarSummaryDTO> summaries(List<Car> cars) {
+        List<CarSummaryDTO> summaries = new ArrayList<>(cars.size());
+        for (Car car : cars) {
+            summaries.add(CarSummaryDTO.from(car));
+        }
+        return summaries;
+    }
+
+    private void writeLine(OutputStream out, Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
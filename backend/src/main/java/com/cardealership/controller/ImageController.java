@@ -0,0 +1,27 @@
+package com.cardealership.controller;
+
+import com.cardealership.service.ImageDeliveryService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+@RestController
+public class ImageController {
+    private static final String UPLOADS_PATTERN = "/uploads/**";
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    @Autowired
+    private ImageDeliveryService imageDeliveryService;
+
+    @GetMapping(UPLOADS_PATTERN)
+    public void getImage(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String path = (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
+        imageDeliveryService.serve(PATH_MATCHER.extractPathWithinPattern(UPLOADS_PATTERN, path), request, response);
+    }
+}
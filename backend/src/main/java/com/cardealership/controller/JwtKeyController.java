@@ -0,0 +1,42 @@
+package com.cardealership.controller;
+
+import com.cardealership.payload.response.MessageResponse;
+import com.cardealership.security.jwt.JwtKeyRing;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/jwt-keys")
+@CrossOrigin(origins = "http://localhost:3000")
+@PreAuthorize("hasRole('ADMIN')")
+public class JwtKeyController {
+
+    @Autowired
+    private JwtKeyRing keyRing;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getKeys() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("activeKid", keyRing.getActiveKid());
+        result.put("keys", keyRing.getKeyIds());
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/reload")
+    public ResponseEntity<?> reloadKeys() {
+        try {
+            if (!keyRing.reload()) {
+                return ResponseEntity.badRequest().body(new MessageResponse("No JWT keys file is configured"));
+            }
+            return getKeys();
+        } catch (IOException | RuntimeException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error reloading JWT keys: " + e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.cardealership.controller;
+
+import com.cardealership.dto.LeadSearchCriteria;
+import com.cardealership.model.Lead;
+import com.cardealership.payload.response.MessageResponse;
+import com.cardealership.service.LeadService;
+import com.cardealership.service.LeadSpecifications;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequestMapping("/api/admin/leads")
+@CrossOrigin(origins = "http://localhost:3000")
+@PreAuthorize("hasRole('ADMIN')")
+public class LeadAdminController {
+    private static final Logger logger = LoggerFactory.getLogger(LeadAdminController.class);
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    private static final String CSV_HEADER = "id,createdAt,status,duplicateOf,make,model,manufacturedYear,mileage,"
+            + "color,transmission,fuelType,condition,vin,askingPrice,ownerName,ownerEmail,ownerPhone,"
+            + "preferredContactTime,description,attempts,sentAt\n";
+
+    @Autowired
+    private LeadService leadService;
+
+    @GetMapping
+    public ResponseEntity<?> getLeads(
+            @ModelAttribute LeadSearchCriteria criteria,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String sort) {
+        logger.debug("GET /api/admin/leads - criteria: {}, page={}, size={}, sort={}", criteria, page, size, sort);
+        try {
+            Pageable pageable = PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, MAX_PAGE_SIZE)),
+                    LeadSpecifications.parseSort(sort));
+            Page<Lead> result = leadService.searchLeads(criteria, pageable);
+            return ResponseEntity.ok()
+                    .header("X-Total-Count", String.valueOf(result.getTotalElements()))
+                    .body(result.getContent());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+        }
+    }
+
+    // Exported in id order so the file can be streamed straight from a cursor
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportLeads(@ModelAttribute LeadSearchCriteria criteria) {
+        logger.debug("GET /api/admin/leads/export - criteria: {}", criteria);
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write(CSV_HEADER);
+            leadService.streamLeads(criteria, Sort.by(Sort.Direction.ASC, "id"), lead -> writeRow(writer, lead));
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"leads.csv\"")
+                .body(body);
+    }
+
+    private void writeRow(Writer writer, Lead lead) {
+        Object[] values = {lead.getId(), lead.getCreatedAt(), lead.getStatus(), lead.getDuplicateOf(),
+                lead.getMake(), lead.getModel(), lead.getManufacturedYear(), lead.getMileage(), lead.getColor(),
+                lead.getTransmission(), lead.getFuelType(), lead.getCondition(), lead.getVin(),
+                lead.getAskingPrice() != null ? lead.getAskingPrice().toPlainString() : null,
+                lead.getOwnerName(), lead.getOwnerEmail(), lead.getOwnerPhone(), lead.getPreferredContactTime(),
+                lead.getDescription(), lead.getAttempts(), lead.getSentAt()};
+        try {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeCell(writer, values[i]);
+            }
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeCell(Writer writer, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        // Leads are public input: keep spreadsheet apps from evaluating cells as formulas, including
+        // ones hidden behind a leading tab or carriage return
+        if (!text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0 && !(value instanceof Number)) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            writer.write('"');
+            writer.write(text.replace("\"", "\"\""));
+            writer.write('"');
+        } else {
+            writer.write(text);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.cardealership.controller;
+
+import com.cardealership.config.PasswordHashingConfig;
+import com.cardealership.security.services.AuthMetrics;
+import com.cardealership.service.ImageDeliveryService;
+import com.cardealership.service.LeadDispatcher;
+import com.cardealership.service.LeadDuplicateDetector;
+import com.cardealership.service.LeadService;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/stats")
+@CrossOrigin(origins = "http://localhost:3000")
+@PreAuthorize("hasRole('ADMIN')")
+public class StatsController {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ImageDeliveryService imageDeliveryService;
+
+    @Autowired
+    private AuthMetrics authMetrics;
+
+    @Autowired
+    private LeadService leadService;
+
+    @Autowired
+    private LeadDispatcher leadDispatcher;
+
+    @Autowired
+    private LeadDuplicateDetector leadDuplicateDetector;
+
+    @Autowired
+    @Qualifier(PasswordHashingConfig.EXECUTOR)
+    private ThreadPoolTaskExecutor passwordHashingExecutor;
+
+    @GetMapping("/caches")
+    public ResponseEntity<Map<String, Map<String, Object>>> getCacheStats() {
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            if (cacheManager.getCache(name) instanceof CaffeineCache cache) {
+                CacheStats stats = cache.getNativeCache().stats();
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("size", cache.getNativeCache().estimatedSize());
+                entry.put("hitCount", stats.hitCount());
+                entry.put("missCount", stats.missCount());
+                entry.put("hitRate", stats.hitRate());
+                entry.put("evictionCount", stats.evictionCount());
+                result.put(name, entry);
+            }
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/images")
+    public ResponseEntity<Map<String, Object>> getImageStats() {
+        return ResponseEntity.ok(imageDeliveryService.getStats());
+    }
+
+    @GetMapping("/auth")
+    public ResponseEntity<Map<String, Object>> getAuthStats() {
+        Map<String, Object> result = authMetrics.snapshot();
+        result.put("hashQueueDepth", passwordHashingExecutor.getThreadPoolExecutor().getQueue().size());
+        result.put("hashActiveThreads", passwordHashingExecutor.getActiveCount());
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/leads")
+    public ResponseEntity<Map<String, Object>> getLeadStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        leadService.countByStatus().forEach((status, count) -> result.put(status.name(), count));
+        result.put("sentSinceStartup", leadDispatcher.getSentCount());
+        result.put("messagesSinceStartup", leadDispatcher.getMessageCount());
+        result.put("retriesSinceStartup", leadDispatcher.getFailedCount());
+        result.put("deadSinceStartup", leadDispatcher.getDeadCount());
+        result.put("duplicateFingerprints", leadDuplicateDetector.size());
+        return ResponseEntity.ok(result);
+    }
+}
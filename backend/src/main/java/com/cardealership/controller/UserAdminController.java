@@ -0,0 +1,129 @@
+package com.cardealership.controller;
+
+import com.cardealership.config.PasswordHashingConfig;
+import com.cardealership.model.ERole;
+import com.cardealership.model.User;
+import com.cardealership.payload.request.SignupRequest;
+import com.cardealership.payload.request.UserRolesRequest;
+import com.cardealership.payload.response.MessageResponse;
+import com.cardealership.security.services.AuthMetrics;
+import com.cardealership.security.services.RoleCache;
+import com.cardealership.service.UserService;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/admin/users")
+@CrossOrigin(origins = "http://localhost:3000")
+@PreAuthorize("hasRole('ADMIN')")
+public class UserAdminController {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private RoleCache roleCache;
+
+    @Autowired
+    private PasswordEncoder encoder;
+
+    @Autowired
+    private AuthMetrics authMetrics;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    @Qualifier(PasswordHashingConfig.EXECUTOR)
+    private Executor passwordHashingExecutor;
+
+    @PostMapping("/import")
+    public CompletableFuture<ResponseEntity<?>> importUsers(@RequestBody List<SignupRequest> requests) {
+        try {
+            // One task hashes the whole batch, leaving the other hashing threads to interactive logins
+            return CompletableFuture.supplyAsync(() -> importBatch(requests), passwordHashingExecutor);
+        } catch (RejectedExecutionException e) {
+            authMetrics.recordQueueRejected();
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new MessageResponse("Error: Server is busy, please try again")));
+        }
+    }
+
+    @PutMapping("/{id}/roles")
+    public ResponseEntity<?> updateRoles(@PathVariable Long id, @RequestBody UserRolesRequest request) {
+        if (request.getRoles() == null || request.getRoles().isEmpty()) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: At least one role is required"));
+        }
+        Set<ERole> roles = EnumSet.noneOf(ERole.class);
+        for (String name : request.getRoles()) {
+            if ("admin".equals(name)) {
+                roles.add(ERole.ROLE_ADMIN);
+            } else if ("user".equals(name)) {
+                roles.add(ERole.ROLE_USER);
+            } else {
+                return ResponseEntity.badRequest().body(new MessageResponse("Error: Unknown role: " + name));
+            }
+        }
+
+        // Bumps the user's token version, so tokens issued with the old roles stop working
+        Optional<User> updated = userService.updateUserRoles(id, roles);
+        if (updated.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("id", updated.get().getId());
+        result.put("username", updated.get().getUsername());
+        result.put("roles", updated.get().getRoles().stream()
+                .map(role -> role.getName().name()).sorted().collect(Collectors.toList()));
+        return ResponseEntity.ok(result);
+    }
+
+    private ResponseEntity<?> importBatch(List<SignupRequest> requests) {
+        List<User> users = new ArrayList<>();
+        List<String> skipped = new ArrayList<>();
+        for (SignupRequest request : requests) {
+            // Invalid rows are skipped before hashing; one of them would otherwise fail the whole batch insert
+            if (request == null || !validator.validate(request).isEmpty()) {
+                skipped.add(request != null ? request.getUsername() : null);
+                continue;
+            }
+            User user = new User(request.getUsername(), request.getEmail(), encoder.encode(request.getPassword()));
+            user.setRoles(roleCache.resolve(request.getRoles()));
+            users.add(user);
+        }
+
+        List<User> created = userService.importUsers(users);
+        Set<User> createdUsers = Collections.newSetFromMap(new IdentityHashMap<>());
+        createdUsers.addAll(created);
+        for (User user : users) {
+            if (!createdUsers.contains(user)) {
+                skipped.add(user.getUsername());
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("created", created.stream().map(User::getUsername).collect(Collectors.toList()));
+        result.put("skipped", skipped);
+        return ResponseEntity.ok(result);
+    }
+}
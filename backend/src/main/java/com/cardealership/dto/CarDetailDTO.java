@@ -0,0 +1,67 @@
+package com.cardealership.dto;
+
+import com.cardealership.model.Car;
+import com.cardealership.model.CarImage;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Car detail view: every listing field and image, without audit timestamps or storage internals.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"id", "make", "model", "manufacturedYear", "price", "mileage", "color", "transmission",
+        "fuelType", "carCondition", "status", "vin", "description", "imageUrl", "images", "version"})
+public class CarDetailDTO {
+    private Long id;
+    private String make;
+    private String model;
+    private Integer manufacturedYear;
+    private BigDecimal price;
+    private Integer mileage;
+    private String color;
+    private String transmission;
+    private String fuelType;
+    private String carCondition;
+    private String status;
+    private String vin;
+    private String description;
+    private String imageUrl;
+    private List<CarImageDTO> images;
+    private Long version;
+
+    public static CarDetailDTO from(Car car) {
+        CarDetailDTO dto = new CarDetailDTO();
+        dto.setId(car.getId());
+        dto.setMake(car.getMake());
+        dto.setModel(car.getModel());
+        dto.setManufacturedYear(car.getManufacturedYear());
+        dto.setPrice(car.getPrice());
+        dto.setMileage(car.getMileage());
+        dto.setColor(car.getColor());
+        dto.setTransmission(car.getTransmission());
+        dto.setFuelType(car.getFuelType());
+        dto.setCarCondition(car.getCarCondition());
+        dto.setStatus(car.getStatus());
+        dto.setVin(car.getVin());
+        dto.setDescription(car.getDescription());
+        CarImage primary = CarSummaryDTO.primaryImage(car);
+        if (primary != null) {
+            dto.setImageUrl(primary.getFullUrl() != null ? primary.getFullUrl() : primary.getImageUrl());
+        }
+        List<CarImageDTO> images = new ArrayList<>(car.getImages() != null ? car.getImages().size() : 0);
+        if (car.getImages() != null) {
+            for (CarImage image : car.getImages()) {
+                images.add(CarImageDTO.from(image));
+            }
+        }
+        dto.setImages(images);
+        dto.setVersion(car.getVersion());
+        return dto;
+    }
+}
@@ -0,0 +1,29 @@
+package com.cardealership.dto;
+
+import com.cardealership.model.CarImage;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.Data;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"id", "imageUrl", "thumbnailUrl", "cardUrl", "fullUrl", "primary"})
+public class CarImageDTO {
+    private Long id;
+    private String imageUrl;
+    private String thumbnailUrl;
+    private String cardUrl;
+    private String fullUrl;
+    private boolean primary;
+
+    public static CarImageDTO from(CarImage image) {
+        CarImageDTO dto = new CarImageDTO();
+        dto.setId(image.getId());
+        dto.setImageUrl(image.getImageUrl());
+        dto.setThumbnailUrl(image.getThumbnailUrl());
+        dto.setCardUrl(image.getCardUrl());
+        dto.setFullUrl(image.getFullUrl());
+        dto.setPrimary(image.isPrimary());
+        return dto;
+    }
+}
@@ -0,0 +1,42 @@
+package com.cardealership.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+public class CarListingDTO {
+    private Long id;
+    private String make;
+    private String model;
+    private Integer manufacturedYear;
+    private BigDecimal price;
+    private Integer mileage;
+    private String fuelType;
+    private String transmission;
+    private String status;
+    private String primaryImageUrl;
+    private String thumbnailUrl;
+
+    @JsonIgnore
+    private LocalDateTime updatedAt;
+
+    public CarListingDTO(Long id, String make, String model, Integer manufacturedYear, BigDecimal price,
+                         Integer mileage, String fuelType, String transmission, String status,
+                         LocalDateTime updatedAt) {
+        this.id = id;
+        this.make = make;
+        this.model = model;
+        this.manufacturedYear = manufacturedYear;
+        this.price = price;
+        this.mileage = mileage;
+        this.fuelType = fuelType;
+        this.transmission = transmission;
+        this.status = status;
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,22 @@
+package com.cardealership.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class CarSearchCriteria {
+    private String make;
+    private String model;
+    private Integer minYear;
+    private Integer maxYear;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Integer minMileage;
+    private Integer maxMileage;
+    private String fuelType;
+    private String transmission;
+    private String color;
+    private String carCondition;
+    private String status;
+}
@@ -0,0 +1,65 @@
+package com.cardealership.dto;
+
+import com.cardealership.model.Car;
+import com.cardealership.model.CarImage;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * Inventory list view: the fields a car card shows plus one image, sized for the card.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"id", "make", "model", "manufacturedYear", "price", "mileage", "color", "transmission",
+        "fuelType", "carCondition", "status", "imageUrl", "thumbnailUrl"})
+public class CarSummaryDTO {
+    private Long id;
+    private String make;
+    private String model;
+    private Integer manufacturedYear;
+    private BigDecimal price;
+    private Integer mileage;
+    private String color;
+    private String transmission;
+    private String fuelType;
+    private String carCondition;
+    private String status;
+    private String imageUrl;
+    private String thumbnailUrl;
+
+    public static CarSummaryDTO from(Car car) {
+        CarSummaryDTO dto = new CarSummaryDTO();
+        dto.setId(car.getId());
+        dto.setMake(car.getMake());
+        dto.setModel(car.getModel());
+        dto.setManufacturedYear(car.getManufacturedYear());
+        dto.setPrice(car.getPrice());
+        dto.setMileage(car.getMileage());
+        dto.setColor(car.getColor());
+        dto.setTransmission(car.getTransmission());
+        dto.setFuelType(car.getFuelType());
+        dto.setCarCondition(car.getCarCondition());
+        dto.setStatus(car.getStatus());
+        CarImage primary = primaryImage(car);
+        if (primary != null) {
+            dto.setImageUrl(primary.getCardUrl() != null ? primary.getCardUrl() : primary.getImageUrl());
+            dto.setThumbnailUrl(primary.getThumbnailUrl() != null ? primary.getThumbnailUrl() : primary.getImageUrl());
+        }
+        return dto;
+    }
+
+    static CarImage primaryImage(Car car) {
+        if (car.getImages() == null || car.getImages().isEmpty()) {
+            return null;
+        }
+        for (CarImage image : car.getImages()) {
+            if (image.isPrimary()) {
+                return image;
+            }
+        }
+        return car.getImages().get(0);
+    }
+}
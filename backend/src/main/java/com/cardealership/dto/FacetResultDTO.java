@@ -0,0 +1,15 @@
+package com.cardealership.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetResultDTO {
+    private int total;
+    private Map<String, Map<String, Integer>> facets;
+}
@@ -0,0 +1,15 @@
+package com.cardealership.dto;
+
+import com.cardealership.model.ImageStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageStatusDTO {
+    private Long id;
+    private String imageUrl;
+    private ImageStatus status;
+}
@@ -0,0 +1,21 @@
+package com.cardealership.dto;
+
+import com.cardealership.model.LeadStatus;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+@Data
+public class LeadSearchCriteria {
+    private LeadStatus status;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+    private String make;
+    private String model;
+    private String vin;
+    private String email;
+    private String phone;
+}
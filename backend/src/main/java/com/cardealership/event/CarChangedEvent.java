@@ -0,0 +1,33 @@
+package com.cardealership.event;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published by {@code CarServiceImpl} whenever a car row is created, modified or removed.
+ * {@code CarReadModelUpdater} refreshes the in-memory read models from it after the surrounding
+ * transaction commits.
+ */
+public class CarChangedEvent extends ApplicationEvent {
+
+    public enum Type {
+        SAVED,
+        DELETED
+    }
+
+    private final Long carId;
+    private final Type type;
+
+    public CarChangedEvent(Object source, Long carId, Type type) {
+        super(source);
+        this.carId = carId;
+        this.type = type;
+    }
+
+    public Long getCarId() {
+        return carId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+}
@@ -1,20 +1,35 @@
 package com.cardealership.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 @Data
 @Entity
-@Table(name = "cars")
+// Updates write only the columns that changed, so partial edits stay small statements
+@DynamicUpdate
+@Table(name = "cars", indexes = {
+        @Index(name = "idx_cars_updated_at_id", columnList = "updated_at, id"),
+        @Index(name = "idx_cars_status_year_price", columnList = "status, manufactured_year, price"),
+        @Index(name = "idx_cars_year_price", columnList = "manufactured_year, price"),
+        @Index(name = "idx_cars_price", columnList = "price"),
+        @Index(name = "idx_cars_make_model_key", columnList = "make_key, model_key")
+}, uniqueConstraints = @UniqueConstraint(name = Car.VIN_CONSTRAINT, columnNames = "vin"))
 public class Car {
+    public static final String VIN_CONSTRAINT = "uk_cars_vin";
+    public static final Set<String> STATUSES = Set.of("AVAILABLE", "SOLD", "PENDING");
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -49,22 +64,55 @@ public class Car {
     @Column
     private String status;
 
-    @Column(unique = true)
+    @Column
     private String vin;
 
     @Column(columnDefinition = "TEXT")
     private String description;
 
+    // Upper-cased copies generated by the database; search filters on these so they stay index-friendly
+    @JsonIgnore
+    @Column(name = "make_key", insertable = false, updatable = false)
+    private String makeKey;
+
+    @JsonIgnore
+    @Column(name = "model_key", insertable = false, updatable = false)
+    private String modelKey;
+
+    @JsonIgnore
+    @Column(name = "color_key", insertable = false, updatable = false)
+    private String colorKey;
+
+    @JsonIgnore
+    @Column(name = "transmission_key", insertable = false, updatable = false)
+    private String transmissionKey;
+
+    @JsonIgnore
+    @Column(name = "fuel_type_key", insertable = false, updatable = false)
+    private String fuelTypeKey;
+
+    @JsonIgnore
+    @Column(name = "car_condition_key", insertable = false, updatable = false)
+    private String carConditionKey;
+
+    // Batch-loaded so list queries issue one car_images select per 100 cars instead of one per car
     @OneToMany(mappedBy = "car", cascade = CascadeType.ALL, fetch = FetchType.EAGER, orphanRemoval = true)
+    @BatchSize(size = 100)
+    @OrderBy("displayOrder ASC, id ASC")
     @JsonManagedReference
     private List<CarImage> images = new ArrayList<>();
 
+    // Optimistic lock for concurrent edits; also the entity tag of the car's detail view
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
     @UpdateTimestamp
-    @Column(name = "updated_at")
+    @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
     public void addImage(CarImage image) {
@@ -10,7 +10,9 @@ import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "car_images")
+@Table(name = "car_images", indexes = {
+        @Index(name = "idx_car_images_content_hash", columnList = "content_hash")
+})
 public class CarImage {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -24,12 +26,29 @@ public class CarImage {
     @Column(name = "image_url", nullable = false)
     private String imageUrl;
 
+    // Set for images in the content-addressed store; blobs are shared by every row with the same hash
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "thumbnail_url")
+    private String thumbnailUrl;
+
+    @Column(name = "card_url")
+    private String cardUrl;
+
+    @Column(name = "full_url")
+    private String fullUrl;
+
     @Column(name = "is_primary", nullable = false)
     private boolean isPrimary = false;
 
     @Column(name = "display_order", nullable = false)
     private int displayOrder = 0;
 
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ImageStatus status = ImageStatus.READY;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
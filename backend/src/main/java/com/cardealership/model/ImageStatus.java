@@ -0,0 +1,7 @@
+package com.cardealership.model;
+
+public enum ImageStatus {
+    PENDING,
+    READY,
+    FAILED
+}
@@ -0,0 +1,95 @@
+package com.cardealership.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "leads", indexes = {
+        @Index(name = "idx_leads_status_next_attempt", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_leads_status_created", columnList = "status, created_at"),
+        @Index(name = "idx_leads_created", columnList = "created_at")
+})
+public class Lead {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column
+    private String make;
+
+    @Column
+    private String model;
+
+    @Column(name = "manufactured_year")
+    private Integer manufacturedYear;
+
+    @Column
+    private Integer mileage;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Column
+    private String color;
+
+    @Column
+    private String transmission;
+
+    @Column(name = "fuel_type")
+    private String fuelType;
+
+    @Column(name = "car_condition")
+    private String condition;
+
+    @Column
+    private String vin;
+
+    @Column(name = "owner_name")
+    private String ownerName;
+
+    @Column(name = "owner_email")
+    private String ownerEmail;
+
+    @Column(name = "owner_phone")
+    private String ownerPhone;
+
+    @Column(name = "preferred_contact_time")
+    private String preferredContactTime;
+
+    @Column(name = "asking_price")
+    private BigDecimal askingPrice;
+
+    // Address the notification goes to; leads for the same recipient share a digest
+    @Column(nullable = false)
+    private String recipient;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private LeadStatus status = LeadStatus.PENDING;
+
+    // Set on DUPLICATE leads: the earlier lead with the same VIN, phone or email
+    @Column(name = "duplicate_of")
+    private Long duplicateOf;
+
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    // When the dispatcher may next try to deliver the notification
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
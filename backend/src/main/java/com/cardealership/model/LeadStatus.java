@@ -0,0 +1,8 @@
+package com.cardealership.model;
+
+public enum LeadStatus {
+    PENDING,
+    SENT,
+    DEAD,
+    DUPLICATE
+}
@@ -14,12 +14,15 @@ import java.util.Set;
 @Entity
 @Table(name = "users",
        uniqueConstraints = {
-           @UniqueConstraint(columnNames = "username"),
-           @UniqueConstraint(columnNames = "email")
+           @UniqueConstraint(name = User.USERNAME_CONSTRAINT, columnNames = "username"),
+           @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email")
        })
 @Data
 @NoArgsConstructor
 public class User {
+    public static final String USERNAME_CONSTRAINT = "uk_users_username";
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -46,6 +49,10 @@ public class User {
     @Column(nullable = false)
     private String fullName;
 
+    // Bumped whenever credentials or roles change; tokens issued for an older version are rejected
+    @Column(name = "token_version", nullable = false)
+    private int tokenVersion = 0;
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
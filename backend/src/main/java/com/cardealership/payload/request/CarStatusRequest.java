@@ -0,0 +1,16 @@
+package com.cardealership.payload.request;
+
+import jakarta.validation.constraints.NotBlank;
+
+public class CarStatusRequest {
+    @NotBlank
+    private String status;
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+}
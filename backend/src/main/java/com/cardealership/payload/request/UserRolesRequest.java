@@ -0,0 +1,16 @@
+package com.cardealership.payload.request;
+
+import java.util.Set;
+
+public class UserRolesRequest {
+    // Role names as accepted by signup: "admin" or "user"
+    private Set<String> roles;
+
+    public Set<String> getRoles() {
+        return roles;
+    }
+
+    public void setRoles(Set<String> roles) {
+        this.roles = roles;
+    }
+}
@@ -9,9 +9,15 @@ public class JwtResponse {
     private String username;
     private String email;
     private List<String> roles;
+    private String refreshToken;
 
     public JwtResponse(String accessToken, Long id, String username, String email, List<String> roles) {
+        this(accessToken, null, id, username, email, roles);
+    }
+
+    public JwtResponse(String accessToken, String refreshToken, Long id, String username, String email, List<String> roles) {
         this.token = accessToken;
+        this.refreshToken = refreshToken;
         this.id = id;
         this.username = username;
         this.email = email;
@@ -26,6 +32,14 @@ public class JwtResponse {
         this.token = accessToken;
     }
 
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
     public String getTokenType() {
         return type;
     }
@@ -1,13 +1,63 @@
 package com.cardealership.repository;
 
 import com.cardealership.model.CarImage;
+import com.cardealership.model.ImageStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CarImageRepository extends JpaRepository<CarImage, Long> {
     List<CarImage> findByCarIdOrderByDisplayOrderAsc(Long carId);
     void deleteByCarId(Long carId);
-} 
\ No newline at end of file
+
+    interface PrimaryImageView {
+        Long getCarId();
+        String getImageUrl();
+        String getThumbnailUrl();
+    }
+
+    // Candidates are the flagged primary image and the first ready image by display order;
+    // callers keep the first row per car.
+    @Query("SELECT i.car.id AS carId, i.imageUrl AS imageUrl, i.thumbnailUrl AS thumbnailUrl FROM CarImage i " +
+           "WHERE i.car.id IN :carIds AND i.status = com.cardealership.model.ImageStatus.READY " +
+           "AND (i.isPrimary = true OR i.displayOrder = (SELECT MIN(j.displayOrder) FROM CarImage j " +
+           "WHERE j.car = i.car AND j.status = com.cardealership.model.ImageStatus.READY)) " +
+           "ORDER BY i.car.id, i.isPrimary DESC, i.displayOrder ASC, i.id ASC")
+    List<PrimaryImageView> findPrimaryImages(@Param("carIds") Collection<Long> carIds);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE CarImage i SET i.status = :status WHERE i.id = :id")
+    int updateStatus(@Param("id") Long id, @Param("status") ImageStatus status);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE CarImage i SET i.status = com.cardealership.model.ImageStatus.READY, " +
+           "i.imageUrl = :imageUrl, i.contentHash = :contentHash, " +
+           "i.thumbnailUrl = :thumbnailUrl, i.cardUrl = :cardUrl, i.fullUrl = :fullUrl WHERE i.id = :id")
+    int markReady(@Param("id") Long id, @Param("imageUrl") String imageUrl, @Param("contentHash") String contentHash,
+                  @Param("thumbnailUrl") String thumbnailUrl, @Param("cardUrl") String cardUrl,
+                  @Param("fullUrl") String fullUrl);
+
+    @Query("SELECT DISTINCT i.contentHash FROM CarImage i WHERE i.contentHash IN :hashes")
+    List<String> findReferencedContentHashes(@Param("hashes") Collection<String> hashes);
+
+    interface StoredFileView {
+        String getImageUrl();
+        String getThumbnailUrl();
+        String getCardUrl();
+        String getFullUrl();
+    }
+
+    // Files owned by a single image; content-addressed blobs are shared and left to the garbage collector
+    @Query("SELECT i.imageUrl AS imageUrl, i.thumbnailUrl AS thumbnailUrl, i.cardUrl AS cardUrl, i.fullUrl AS fullUrl " +
+           "FROM CarImage i WHERE i.car.id = :carId AND i.contentHash IS NULL")
+    List<StoredFileView> findUnsharedFiles(@Param("carId") Long carId);
+}
@@ -1,19 +1,63 @@
 package com.cardealership.repository;
 
+import com.cardealership.dto.CarListingDTO;
 import com.cardealership.model.Car;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface CarRepository extends JpaRepository<Car, Long> {
+public interface CarRepository extends JpaRepository<Car, Long>, JpaSpecificationExecutor<Car> {
     List<Car> findByMakeContainingIgnoreCase(String make);
     List<Car> findByModelContainingIgnoreCase(String model);
     List<Car> findByManufacturedYear(Integer manufacturedYear);
     List<Car> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice);
     List<Car> findByStatus(String status);
+
+    // Image rows change without touching the car row; this keeps the car's version (and ETag) honest
+    @Modifying
+    @Transactional
+    @Query("UPDATE Car c SET c.version = c.version + 1 WHERE c.id = :id")
+    int incrementVersion(@Param("id") Long id);
+
+    interface StatusView {
+        String getStatus();
+        Long getVersion();
+    }
+
+    @Query("SELECT c.status AS status, c.version AS version FROM Car c WHERE c.id = :id")
+    Optional<StatusView> findStatusById(@Param("id") Long id);
+
+    // A status flip without loading the car or its images; the version guard keeps it optimistic
+    @Modifying
+    @Query("UPDATE Car c SET c.status = :status, c.version = c.version + 1, c.updatedAt = :updatedAt " +
+           "WHERE c.id = :id AND c.version = :version")
+    int updateStatus(@Param("id") Long id, @Param("status") String status, @Param("version") Long version,
+                     @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Bulk deletes skip loading the car; its image rows go with it through ON DELETE CASCADE
+    @Modifying
+    @Query("DELETE FROM Car c WHERE c.id = :id")
+    int deleteDirectly(@Param("id") Long id);
+
+    @Modifying
+    @Query("DELETE FROM Car c WHERE c.id = :id AND c.version = :version")
+    int deleteDirectly(@Param("id") Long id, @Param("version") Long version);
+
     List<Car> findByMakeContainingIgnoreCaseOrModelContainingIgnoreCaseOrVinContainingIgnoreCase(
         String make, String model, String vin
     );
@@ -22,6 +66,31 @@ public interface CarRepository extends JpaRepository<Car, Long> {
         String make, String model, Integer year, BigDecimal minPrice, BigDecimal maxPrice
     );
 
-    List<Car> findByMakeContainingAndModelContainingAndManufacturedYearBetweenAndPriceBetween(
-            String make, String model, Integer minYear, Integer maxYear, Double minPrice, Double maxPrice);
-} 
\ No newline at end of file
+    @Query("SELECT c FROM Car c WHERE c.id > :afterId ORDER BY c.id ASC")
+    List<Car> findPageAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT c FROM Car c ORDER BY c.updatedAt DESC, c.id DESC")
+    List<Car> findFirstPageByUpdatedAt(Pageable pageable);
+
+    @Query("SELECT c FROM Car c WHERE c.updatedAt < :updatedAt OR (c.updatedAt = :updatedAt AND c.id < :id) " +
+           "ORDER BY c.updatedAt DESC, c.id DESC")
+    List<Car> findPageAfterUpdatedAt(@Param("updatedAt") LocalDateTime updatedAt, @Param("id") Long id, Pageable pageable);
+
+    String LISTING_SELECT = "SELECT new com.cardealership.dto.CarListingDTO(c.id, c.make, c.model, " +
+            "c.manufacturedYear, c.price, c.mileage, c.fuelType, c.transmission, c.status, c.updatedAt) FROM Car c ";
+
+    @Query(LISTING_SELECT + "WHERE c.id > :afterId ORDER BY c.id ASC")
+    List<CarListingDTO> findListingPageAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query(LISTING_SELECT + "ORDER BY c.updatedAt DESC, c.id DESC")
+    List<CarListingDTO> findFirstListingPageByUpdatedAt(Pageable pageable);
+
+    @Query(LISTING_SELECT + "WHERE c.updatedAt < :updatedAt OR (c.updatedAt = :updatedAt AND c.id < :id) " +
+           "ORDER BY c.updatedAt DESC, c.id DESC")
+    List<CarListingDTO> findListingPageAfterUpdatedAt(@Param("updatedAt") LocalDateTime updatedAt, @Param("id") Long id,
+                                                      Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query("SELECT c FROM Car c ORDER BY c.id ASC")
+    Stream<Car> streamAllByOrderByIdAsc();
+}
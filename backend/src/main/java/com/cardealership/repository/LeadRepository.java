@@ -0,0 +1,78 @@
+package com.cardealership.repository;
+
+import com.cardealership.model.Lead;
+import com.cardealership.model.LeadStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface LeadRepository extends JpaRepository<Lead, Long>, JpaSpecificationExecutor<Lead> {
+    interface StatusCount {
+        LeadStatus getStatus();
+        long getCount();
+    }
+
+    interface FingerprintView {
+        Long getId();
+        String getVin();
+        String getOwnerEmail();
+        String getOwnerPhone();
+        LocalDateTime getCreatedAt();
+    }
+
+    interface DueLead {
+        Long getId();
+        String getRecipient();
+        LocalDateTime getCreatedAt();
+    }
+
+    @Query("SELECT l.id AS id, l.recipient AS recipient, l.createdAt AS createdAt FROM Lead l " +
+           "WHERE l.status = com.cardealership.model.LeadStatus.PENDING AND l.nextAttemptAt <= :now " +
+           "ORDER BY l.createdAt, l.id")
+    List<DueLead> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Like findDue, but only for recipients whose digest is ready, so held digests never fill the page
+    @Query("SELECT l.id AS id, l.recipient AS recipient, l.createdAt AS createdAt FROM Lead l " +
+           "WHERE l.status = com.cardealership.model.LeadStatus.PENDING AND l.nextAttemptAt <= :now " +
+           "AND l.recipient IN (SELECT d.recipient FROM Lead d " +
+           "WHERE d.status = com.cardealership.model.LeadStatus.PENDING AND d.nextAttemptAt <= :now " +
+           "GROUP BY d.recipient HAVING MIN(d.createdAt) <= :windowStart OR COUNT(d) >= :digestSize " +
+           "OR COUNT(d.createdAt) < COUNT(d)) " +
+           "ORDER BY l.createdAt, l.id")
+    List<DueLead> findDueDigests(@Param("now") LocalDateTime now, @Param("windowStart") LocalDateTime windowStart,
+                                 @Param("digestSize") long digestSize, Pageable pageable);
+
+    // Pushing next_attempt_at past the lease claims the lead; only one dispatcher can win the update
+    @Modifying
+    @Query("UPDATE Lead l SET l.nextAttemptAt = :leaseUntil WHERE l.id = :id " +
+           "AND l.status = com.cardealership.model.LeadStatus.PENDING AND l.nextAttemptAt <= :now")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("UPDATE Lead l SET l.status = com.cardealership.model.LeadStatus.SENT, l.attempts = l.attempts + 1, " +
+           "l.sentAt = :sentAt, l.lastError = null WHERE l.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Query("UPDATE Lead l SET l.status = :status, l.attempts = l.attempts + 1, " +
+           "l.nextAttemptAt = :nextAttemptAt, l.lastError = :lastError WHERE l.id = :id")
+    int markFailed(@Param("id") Long id, @Param("status") LeadStatus status,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("lastError") String lastError);
+
+    @Query("SELECT l.status AS status, COUNT(l) AS count FROM Lead l GROUP BY l.status")
+    List<StatusCount> countByStatus();
+
+    @Query("SELECT l.id AS id, l.vin AS vin, l.ownerEmail AS ownerEmail, l.ownerPhone AS ownerPhone, " +
+           "l.createdAt AS createdAt FROM Lead l WHERE l.createdAt >= :since " +
+           "AND l.status <> com.cardealership.model.LeadStatus.DUPLICATE ORDER BY l.createdAt")
+    List<FingerprintView> findFingerprintsSince(@Param("since") LocalDateTime since);
+}
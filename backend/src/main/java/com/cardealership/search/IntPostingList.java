@@ -0,0 +1,56 @@
+package com.cardealership.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted, growable list of int document ids with a parallel int weight per document.
+ * Not thread-safe; {@link TextIndex} guards access.
+ */
+final class IntPostingList {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private int[] docs = new int[INITIAL_CAPACITY];
+    private int[] weights = new int[INITIAL_CAPACITY];
+    private int size;
+
+    void put(int doc, int weight) {
+        int pos = Arrays.binarySearch(docs, 0, size, doc);
+        if (pos >= 0) {
+            weights[pos] = weight;
+            return;
+        }
+        int insertAt = -pos - 1;
+        if (size == docs.length) {
+            int capacity = size + (size >> 1) + 1;
+            docs = Arrays.copyOf(docs, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+        }
+        System.arraycopy(docs, insertAt, docs, insertAt + 1, size - insertAt);
+        System.arraycopy(weights, insertAt, weights, insertAt + 1, size - insertAt);
+        docs[insertAt] = doc;
+        weights[insertAt] = weight;
+        size++;
+    }
+
+    void remove(int doc) {
+        int pos = Arrays.binarySearch(docs, 0, size, doc);
+        if (pos < 0) {
+            return;
+        }
+        System.arraycopy(docs, pos + 1, docs, pos, size - pos - 1);
+        System.arraycopy(weights, pos + 1, weights, pos, size - pos - 1);
+        size--;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int docAt(int index) {
+        return docs[index];
+    }
+
+    int weightAt(int index) {
+        return weights[index];
+    }
+}
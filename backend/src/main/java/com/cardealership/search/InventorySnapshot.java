@@ -0,0 +1,305 @@
+package com.cardealership.search;
+
+import com.cardealership.dto.CarSearchCriteria;
+import com.cardealership.dto.FacetResultDTO;
+import com.cardealership.model.Car;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compact column-oriented copy of the filterable car attributes. String columns are
+ * dictionary-encoded with one bitset per distinct value; numeric columns are plain arrays
+ * indexed by slot. Filter and facet queries never touch the database.
+ */
+public class InventorySnapshot {
+    private static final int NO_VALUE = -1;
+    private static final long[] PRICE_BUCKET_UPPER_CENTS = {1_000_000L, 2_000_000L, 3_000_000L, 5_000_000L, 7_500_000L};
+    private static final String[] PRICE_BUCKET_LABELS =
+            {"0-10000", "10000-20000", "20000-30000", "30000-50000", "50000-75000", "75000+"};
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> slotsByCarId = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private final StringColumn makes = new StringColumn();
+    private final StringColumn models = new StringColumn();
+    private final StringColumn fuelTypes = new StringColumn();
+    private final StringColumn transmissions = new StringColumn();
+    private final StringColumn colors = new StringColumn();
+    private final StringColumn conditions = new StringColumn();
+    private final StringColumn statuses = new StringColumn();
+    private long[] carIds = new long[0];
+    private int[] years = new int[0];
+    private int[] mileages = new int[0];
+    private long[] priceCents = new long[0];
+
+    public void upsert(Car car) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotsByCarId.get(car.getId());
+            if (slot == null) {
+                slot = live.nextClearBit(0);
+                ensureCapacity(slot + 1);
+                slotsByCarId.put(car.getId(), slot);
+                live.set(slot);
+            }
+            carIds[slot] = car.getId();
+            makes.set(slot, car.getMake());
+            models.set(slot, car.getModel());
+            fuelTypes.set(slot, car.getFuelType());
+            transmissions.set(slot, car.getTransmission());
+            colors.set(slot, car.getColor());
+            conditions.set(slot, car.getCarCondition());
+            statuses.set(slot, car.getStatus());
+            years[slot] = car.getManufacturedYear() != null ? car.getManufacturedYear() : NO_VALUE;
+            mileages[slot] = car.getMileage() != null ? car.getMileage() : NO_VALUE;
+            priceCents[slot] = car.getPrice() != null ? toCents(car.getPrice()) : NO_VALUE;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long carId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotsByCarId.remove(carId);
+            if (slot == null) {
+                return;
+            }
+            live.clear(slot);
+            for (StringColumn column : List.of(makes, models, fuelTypes, transmissions, colors, conditions, statuses)) {
+                column.clear(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            for (Long carId : new ArrayList<>(slotsByCarId.keySet())) {
+                remove(carId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsByCarId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public FacetResultDTO facets(CarSearchCriteria criteria) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = (BitSet) live.clone();
+            matches.and(makes.prefixMask(criteria.getMake()));
+            matches.and(models.prefixMask(criteria.getModel()));
+            matches.and(fuelTypes.equalsMask(criteria.getFuelType()));
+            matches.and(transmissions.equalsMask(criteria.getTransmission()));
+            matches.and(colors.equalsMask(criteria.getColor()));
+            matches.and(conditions.equalsMask(criteria.getCarCondition()));
+            matches.and(statuses.equalsMask(criteria.getStatus()));
+            applyRanges(matches, criteria);
+
+            int[] makeCounts = new int[makes.cardinality()];
+            int[] fuelCounts = new int[fuelTypes.cardinality()];
+            int[] transmissionCounts = new int[transmissions.cardinality()];
+            int[] priceCounts = new int[PRICE_BUCKET_LABELS.length];
+            TreeMap<Integer, Integer> yearCounts = new TreeMap<>(Comparator.reverseOrder());
+            for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                count(makeCounts, makes.valueAt(slot));
+                count(fuelCounts, fuelTypes.valueAt(slot));
+                count(transmissionCounts, transmissions.valueAt(slot));
+                if (years[slot] != NO_VALUE) {
+                    yearCounts.merge(years[slot], 1, Integer::sum);
+                }
+                if (priceCents[slot] != NO_VALUE) {
+                    priceCounts[priceBucket(priceCents[slot])]++;
+                }
+            }
+
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            facets.put("make", makes.labelled(makeCounts));
+            facets.put("fuelType", fuelTypes.labelled(fuelCounts));
+            facets.put("transmission", transmissions.labelled(transmissionCounts));
+            Map<String, Integer> yearFacet = new LinkedHashMap<>();
+            yearCounts.forEach((year, count) -> yearFacet.put(String.valueOf(year), count));
+            facets.put("year", yearFacet);
+            Map<String, Integer> priceFacet = new LinkedHashMap<>();
+            for (int i = 0; i < PRICE_BUCKET_LABELS.length; i++) {
+                if (priceCounts[i] > 0) {
+                    priceFacet.put(PRICE_BUCKET_LABELS[i], priceCounts[i]);
+                }
+            }
+            facets.put("price", priceFacet);
+            return new FacetResultDTO(matches.cardinality(), facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void applyRanges(BitSet matches, CarSearchCriteria criteria) {
+        int minYear = criteria.getMinYear() != null ? criteria.getMinYear() : Integer.MIN_VALUE;
+        int maxYear = criteria.getMaxYear() != null ? criteria.getMaxYear() : Integer.MAX_VALUE;
+        int minMileage = criteria.getMinMileage() != null ? criteria.getMinMileage() : Integer.MIN_VALUE;
+        int maxMileage = criteria.getMaxMileage() != null ? criteria.getMaxMileage() : Integer.MAX_VALUE;
+        long minPrice = criteria.getMinPrice() != null ? toCents(criteria.getMinPrice()) : Long.MIN_VALUE;
+        long maxPrice = criteria.getMaxPrice() != null ? toCents(criteria.getMaxPrice()) : Long.MAX_VALUE;
+        boolean filterYear = criteria.getMinYear() != null || criteria.getMaxYear() != null;
+        boolean filterMileage = criteria.getMinMileage() != null || criteria.getMaxMileage() != null;
+        boolean filterPrice = criteria.getMinPrice() != null || criteria.getMaxPrice() != null;
+        if (!filterYear && !filterMileage && !filterPrice) {
+            return;
+        }
+        for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+            if ((filterYear && (years[slot] == NO_VALUE || years[slot] < minYear || years[slot] > maxYear))
+                    || (filterMileage && (mileages[slot] == NO_VALUE || mileages[slot] < minMileage || mileages[slot] > maxMileage))
+                    || (filterPrice && (priceCents[slot] == NO_VALUE || priceCents[slot] < minPrice || priceCents[slot] > maxPrice))) {
+                matches.clear(slot);
+            }
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= carIds.length) {
+            return;
+        }
+        int capacity = Math.max(required, carIds.length + (carIds.length >> 1) + 16);
+        carIds = Arrays.copyOf(carIds, capacity);
+        years = Arrays.copyOf(years, capacity);
+        mileages = Arrays.copyOf(mileages, capacity);
+        priceCents = Arrays.copyOf(priceCents, capacity);
+        for (StringColumn column : List.of(makes, models, fuelTypes, transmissions, colors, conditions, statuses)) {
+            column.ensureCapacity(capacity);
+        }
+    }
+
+    private static void count(int[] counts, int code) {
+        if (code != NO_VALUE) {
+            counts[code]++;
+        }
+    }
+
+    private static int priceBucket(long cents) {
+        for (int i = 0; i < PRICE_BUCKET_UPPER_CENTS.length; i++) {
+            if (cents < PRICE_BUCKET_UPPER_CENTS[i]) {
+                return i;
+            }
+        }
+        return PRICE_BUCKET_UPPER_CENTS.length;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).longValue();
+    }
+
+    /**
+     * Case-insensitive dictionary-encoded column. Codes are never reused, so the dictionary only
+     * grows with the number of distinct values ever seen (a few hundred makes/models at most).
+     */
+    private static final class StringColumn {
+        private final TreeMap<String, Integer> codes = new TreeMap<>();
+        private final List<String> labels = new ArrayList<>();
+        private final List<BitSet> bitsets = new ArrayList<>();
+        private int[] values = new int[0];
+
+        void ensureCapacity(int capacity) {
+            int previous = values.length;
+            values = Arrays.copyOf(values, capacity);
+            Arrays.fill(values, previous, capacity, NO_VALUE);
+        }
+
+        void set(int slot, String value) {
+            clear(slot);
+            if (value == null || value.isBlank()) {
+                return;
+            }
+            String key = value.trim().toLowerCase(Locale.ROOT);
+            Integer code = codes.get(key);
+            if (code == null) {
+                code = labels.size();
+                codes.put(key, code);
+                labels.add(value.trim());
+                bitsets.add(new BitSet());
+            }
+            values[slot] = code;
+            bitsets.get(code).set(slot);
+        }
+
+        void clear(int slot) {
+            if (values[slot] != NO_VALUE) {
+                bitsets.get(values[slot]).clear(slot);
+                values[slot] = NO_VALUE;
+            }
+        }
+
+        int valueAt(int slot) {
+            return values[slot];
+        }
+
+        int cardinality() {
+            return labels.size();
+        }
+
+        BitSet equalsMask(String value) {
+            if (value == null || value.isBlank()) {
+                return all();
+            }
+            Integer code = codes.get(value.trim().toLowerCase(Locale.ROOT));
+            return code != null ? bitsets.get(code) : new BitSet();
+        }
+
+        BitSet prefixMask(String prefix) {
+            if (prefix == null || prefix.isBlank()) {
+                return all();
+            }
+            String key = prefix.trim().toLowerCase(Locale.ROOT);
+            BitSet mask = new BitSet();
+            for (Integer code : codes.subMap(key, true, key + Character.MAX_VALUE, false).values()) {
+                mask.or(bitsets.get(code));
+            }
+            return mask;
+        }
+
+        Map<String, Integer> labelled(int[] counts) {
+            List<Integer> order = new ArrayList<>();
+            for (int code = 0; code < counts.length; code++) {
+                if (counts[code] > 0) {
+                    order.add(code);
+                }
+            }
+            order.sort((a, b) -> counts[a] != counts[b]
+                    ? Integer.compare(counts[b], counts[a])
+                    : labels.get(a).compareToIgnoreCase(labels.get(b)));
+            Map<String, Integer> result = new LinkedHashMap<>();
+            for (int code : order) {
+                result.put(labels.get(code), counts[code]);
+            }
+            return result;
+        }
+
+        private BitSet all() {
+            BitSet mask = new BitSet(values.length);
+            mask.set(0, values.length);
+            return mask;
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.cardealership.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Thread-safe in-memory inverted index over int document ids.
+ * <p>
+ * Query tokens are matched exactly, then as prefixes of indexed terms, and finally (only when a
+ * token matched nothing) fuzzily against term prefixes using a trigram index over the term
+ * dictionary, so {@code "toyt"} still finds {@code "toyota"}.
+ */
+public class TextIndex {
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int MAX_FUZZY_CANDIDATES = 512;
+    private static final float PREFIX_FACTOR = 0.7f;
+    private static final float FUZZY_FACTOR = 0.4f;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Integer> dictionary = new TreeMap<>();
+    private final List<String> terms = new ArrayList<>();
+    private final List<IntPostingList> postings = new ArrayList<>();
+    private final Map<String, IntPostingList> trigramTerms = new HashMap<>();
+    private final Map<Integer, int[]> docTerms = new HashMap<>();
+    // Ids of pruned terms, reused so the term tables do not grow with every edit
+    private final Deque<Integer> freeTermIds = new ArrayDeque<>();
+
+    public static class Hit {
+        private final int docId;
+        private final float score;
+
+        Hit(int docId, float score) {
+            this.docId = docId;
+            this.score = score;
+        }
+
+        public int getDocId() {
+            return docId;
+        }
+
+        public float getScore() {
+            return score;
+        }
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{Alnum}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Replaces everything indexed for {@code docId} with the given term weights.
+     */
+    public void index(int docId, Map<String, Integer> termWeights) {
+        lock.writeLock().lock();
+        try {
+            int[] previous = removeInternal(docId);
+            int[] termIds = new int[termWeights.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : termWeights.entrySet()) {
+                int termId = termId(entry.getKey());
+                postings.get(termId).put(docId, entry.getValue());
+                termIds[i++] = termId;
+            }
+            docTerms.put(docId, termIds);
+            // After the new postings are in, so terms the document keeps are not dropped and re-added
+            prune(previous);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int docId) {
+        lock.writeLock().lock();
+        try {
+            prune(removeInternal(docId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            dictionary.clear();
+            terms.clear();
+            postings.clear();
+            trigramTerms.clear();
+            docTerms.clear();
+            freeTermIds.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docTerms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of distinct terms still referenced by an indexed document.
+     */
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return dictionary.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Hit> search(String query, int limit) {
+        Set<String> tokens = new LinkedHashSet<>(tokenize(query));
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Map<Integer, Float> scores = new HashMap<>();
+        Map<Integer, Integer> matchedTokens = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int docCount = docTerms.size();
+            for (String token : tokens) {
+                Map<Integer, Float> tokenScores = new HashMap<>();
+                Integer exact = dictionary.get(token);
+                if (exact != null) {
+                    accumulate(tokenScores, exact, 1f, docCount);
+                }
+                if (token.length() >= MIN_PREFIX_LENGTH) {
+                    int expansions = 0;
+                    for (Integer termId : dictionary.subMap(token, false, token + Character.MAX_VALUE, false).values()) {
+                        if (expansions >= MAX_PREFIX_EXPANSIONS) {
+                            break;
+                        }
+                        if (accumulate(tokenScores, termId, PREFIX_FACTOR, docCount)) {
+                            expansions++;
+                        }
+                    }
+                }
+                if (tokenScores.isEmpty() && token.length() >= MIN_FUZZY_LENGTH) {
+                    for (int termId : fuzzyCandidates(token)) {
+                        accumulate(tokenScores, termId, FUZZY_FACTOR, docCount);
+                    }
+                }
+                for (Map.Entry<Integer, Float> entry : tokenScores.entrySet()) {
+                    scores.merge(entry.getKey(), entry.getValue(), Float::sum);
+                    matchedTokens.merge(entry.getKey(), 1, Integer::sum);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Documents matching more of the query tokens outrank those that match a single token strongly
+        List<Hit> hits = new ArrayList<>(scores.size());
+        for (Map.Entry<Integer, Float> entry : scores.entrySet()) {
+            float coverage = (float) matchedTokens.get(entry.getKey()) / tokens.size();
+            hits.add(new Hit(entry.getKey(), entry.getValue() * coverage));
+        }
+        hits.sort((a, b) -> a.score != b.score ? Float.compare(b.score, a.score) : Integer.compare(a.docId, b.docId));
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    private boolean accumulate(Map<Integer, Float> tokenScores, int termId, float factor, int docCount) {
+        IntPostingList list = postings.get(termId);
+        if (list.size() == 0) {
+            return false;
+        }
+        float idf = (float) Math.log(1 + (double) docCount / list.size());
+        for (int i = 0; i < list.size(); i++) {
+            tokenScores.merge(list.docAt(i), list.weightAt(i) * idf * factor, Math::max);
+        }
+        return true;
+    }
+
+    private List<Integer> fuzzyCandidates(String token) {
+        int maxEdits = token.length() >= 8 ? 2 : 1;
+        Set<Integer> candidates = new LinkedHashSet<>();
+        for (String gram : trigrams(token)) {
+            IntPostingList list = trigramTerms.get(gram);
+            if (list == null) {
+                continue;
+            }
+            for (int i = 0; i < list.size() && candidates.size() < MAX_FUZZY_CANDIDATES; i++) {
+                candidates.add(list.docAt(i));
+            }
+        }
+
+        List<Integer> matches = new ArrayList<>();
+        for (int termId : candidates) {
+            String term = terms.get(termId);
+            // Compare against the term's prefix so partially typed words still match
+            String target = term.length() > token.length() ? term.substring(0, token.length()) : term;
+            if (editDistance(token, target, maxEdits) <= maxEdits) {
+                matches.add(termId);
+            }
+        }
+        return matches;
+    }
+
+    private int termId(String term) {
+        Integer existing = dictionary.get(term);
+        if (existing != null) {
+            return existing;
+        }
+        Integer free = freeTermIds.poll();
+        int termId;
+        if (free != null) {
+            termId = free;
+            terms.set(termId, term);
+        } else {
+            termId = terms.size();
+            terms.add(term);
+            postings.add(new IntPostingList());
+        }
+        dictionary.put(term, termId);
+        for (String gram : trigrams(term)) {
+            trigramTerms.computeIfAbsent(gram, g -> new IntPostingList()).put(termId, 1);
+        }
+        return termId;
+    }
+
+    private int[] removeInternal(int docId) {
+        int[] termIds = docTerms.remove(docId);
+        if (termIds != null) {
+            for (int termId : termIds) {
+                postings.get(termId).remove(docId);
+            }
+        }
+        return termIds;
+    }
+
+    // Drops terms no document uses any more from the dictionary and the trigram index
+    private void prune(int[] termIds) {
+        if (termIds == null) {
+            return;
+        }
+        for (int termId : termIds) {
+            if (postings.get(termId).size() > 0) {
+                continue;
+            }
+            String term = terms.set(termId, null);
+            dictionary.remove(term);
+            for (String gram : trigrams(term)) {
+                IntPostingList termsWithGram = trigramTerms.get(gram);
+                if (termsWithGram == null) {
+                    // A repeated trigram, already dropped
+                    continue;
+                }
+                termsWithGram.remove(termId);
+                if (termsWithGram.size() == 0) {
+                    trigramTerms.remove(gram);
+                }
+            }
+            freeTermIds.push(termId);
+        }
+    }
+
+    private static List<String> trigrams(String term) {
+        String padded = "$" + term;
+        List<String> grams = new ArrayList<>(padded.length());
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /**
+     * Optimal string alignment distance (Levenshtein plus adjacent transpositions),
+     * abandoning early once every cell in a row exceeds {@code max}.
+     */
+    static int editDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] prevPrev = new int[b.length() + 1];
+        int[] prev = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            prev[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], prevPrev[j - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = prevPrev;
+            prevPrev = prev;
+            prev = current;
+            current = recycled;
+        }
+        return prev[b.length()];
+    }
+}
@@ -1,8 +1,13 @@
 package com.cardealership.security;
 
+import jakarta.servlet.DispatcherType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -20,6 +25,9 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import com.cardealership.security.jwt.AuthEntryPointJwt;
 import com.cardealership.security.jwt.AuthTokenFilter;
+import com.cardealership.security.services.AuthMetrics;
+import com.cardealership.security.services.BCryptCostCalibrator;
+import com.cardealership.security.services.TimedPasswordEncoder;
 import com.cardealership.security.services.UserDetailsServiceImpl;
 
 import java.util.Arrays;
@@ -27,12 +35,30 @@ import java.util.Arrays;
 @Configuration
 @EnableMethodSecurity
 public class WebSecurityConfig {
+    private static final Logger logger = LoggerFactory.getLogger(WebSecurityConfig.class);
+
     @Autowired
     UserDetailsServiceImpl userDetailsService;
 
     @Autowired
     private AuthEntryPointJwt unauthorizedHandler;
 
+    @Autowired
+    private AuthMetrics authMetrics;
+
+    // 0 selects the cost by benchmarking this host against the target below
+    @Value("${cardealership.auth.bcrypt-strength:0}")
+    private int bcryptStrength;
+
+    @Value("${cardealership.auth.bcrypt-target-ms:250}")
+    private long bcryptTargetMs;
+
+    @Value("${cardealership.auth.bcrypt-min-strength:10}")
+    private int bcryptMinStrength;
+
+    @Value("${cardealership.auth.bcrypt-max-strength:14}")
+    private int bcryptMaxStrength;
+
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
         return new AuthTokenFilter();
@@ -44,6 +70,8 @@ public class WebSecurityConfig {
         
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        // Re-hashes stored passwords below the current cost after a successful login
+        authProvider.setUserDetailsPasswordService(userDetailsService);
      
         return authProvider;
     }
@@ -55,16 +83,22 @@ public class WebSecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        int strength = bcryptStrength;
+        if (strength <= 0) {
+            strength = BCryptCostCalibrator.calibrate(bcryptTargetMs, bcryptMinStrength, bcryptMaxStrength);
+        }
+        logger.info("Using BCrypt strength {}", strength);
+        authMetrics.setBcryptStrength(strength);
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(strength), authMetrics);
     }
 
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(Arrays.asList("http://localhost:3000"));
-        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type"));
-        configuration.setExposedHeaders(Arrays.asList("Authorization"));
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
+        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "If-Match", "If-None-Match"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "X-Total-Count", "ETag"));
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
         return source;
@@ -79,13 +113,18 @@ public class WebSecurityConfig {
             .exceptionHandling(exception -> exception.authenticationEntryPoint(unauthorizedHandler))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> 
-                auth.requestMatchers("/h2-console/**").permitAll()
+                // Async results are dispatched after the original request was already authorized
+                auth.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                    .requestMatchers("/h2-console/**").permitAll()
                     .requestMatchers("/api/auth/**").permitAll()
+                    .requestMatchers(HttpMethod.PATCH, "/api/cars/**").authenticated()
                     .requestMatchers("/api/cars").permitAll()
                     .requestMatchers("/api/cars/search").permitAll()
+                    .requestMatchers("/api/cars/search/text").permitAll()
                     .requestMatchers("/api/cars/{id}").permitAll()
                     .requestMatchers("/api/cars/status/**").permitAll()
                     .requestMatchers("/api/leads/**").permitAll()
+                    .requestMatchers("/uploads/**").permitAll()
                     .requestMatchers("/api/cars/**").authenticated()
                     .anyRequest().authenticated()
             );
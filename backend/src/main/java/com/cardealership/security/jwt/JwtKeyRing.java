@@ -0,0 +1,210 @@
+package com.cardealership.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SigningKeyResolver;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.cardealership.config.CacheConfig;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.Key;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import javax.crypto.SecretKey;
+
+/**
+ * Signing keys indexed by {@code kid}. New tokens are signed with the active key; any listed key
+ * still verifies until its optional {@code not-after} instant, so a rotation can overlap with the
+ * lifetime of tokens signed by the previous key instead of logging everyone out.
+ *
+ * <p>Without a keys file the ring holds {@code cardealership.app.jwtSecret} as kid {@code default}.
+ * The keys file is a properties file that is re-read whenever it changes:
+ * <pre>
+ * active=2024-06
+ * key.2024-06=&lt;secret&gt;
+ * key.default=&lt;previous secret&gt;
+ * key.default.not-after=2024-06-02T00:00:00Z
+ * </pre>
+ * Tokens without a {@code kid} header were issued before rotation and resolve to {@code default}.
+ */
+@Component
+public class JwtKeyRing implements SigningKeyResolver {
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyRing.class);
+    public static final String DEFAULT_KID = "default";
+
+    @Value("${cardealership.app.jwtSecret}")
+    private String jwtSecret;
+
+    @Value("${cardealership.app.jwt-keys-file:}")
+    private String keysFile;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private volatile KeySet keySet;
+    private volatile long keysFileModified;
+
+    @PostConstruct
+    void init() throws IOException {
+        if (keysFile.isEmpty()) {
+            keySet = new KeySet(DEFAULT_KID, Map.of(DEFAULT_KID, new SigningKey(Keys.hmacShaKeyFor(jwtSecret.getBytes()), null)));
+            return;
+        }
+        reload();
+    }
+
+    public String getActiveKid() {
+        return keySet.activeKid;
+    }
+
+    /**
+     * Returns the active kid together with its key, both taken from the same ring so a concurrent
+     * {@link #reload()} cannot pair a new key with the old kid.
+     */
+    public ActiveKey getActiveKey() {
+        KeySet current = keySet;
+        return new ActiveKey(current.activeKid, current.keys.get(current.activeKid).key);
+    }
+
+    /**
+     * Returns each known kid with the instant it stops verifying ({@code null} when it does not expire).
+     */
+    public Map<String, Instant> getKeyIds() {
+        Map<String, Instant> kids = new LinkedHashMap<>();
+        keySet.keys.forEach((kid, key) -> kids.put(kid, key.notAfter));
+        return Collections.unmodifiableMap(kids);
+    }
+
+    /**
+     * Re-reads the keys file and swaps the whole ring at once. Returns {@code false} when no keys
+     * file is configured.
+     */
+    public synchronized boolean reload() throws IOException {
+        if (keysFile.isEmpty()) {
+            return false;
+        }
+        Path path = Paths.get(keysFile);
+        long modified = Files.getLastModifiedTime(path).toMillis();
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path)) {
+            properties.load(reader);
+        }
+
+        Map<String, SigningKey> keys = new LinkedHashMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            if (name.startsWith("key.") && !name.endsWith(".not-after")) {
+                String kid = name.substring("key.".length());
+                String notAfter = properties.getProperty(name + ".not-after");
+                keys.put(kid, new SigningKey(Keys.hmacShaKeyFor(properties.getProperty(name).getBytes()),
+                        notAfter != null ? Instant.parse(notAfter.trim()) : null));
+            }
+        }
+        String activeKid = properties.getProperty("active");
+        if (activeKid == null || !keys.containsKey(activeKid)) {
+            throw new IllegalStateException("JWT keys file " + keysFile + " does not define the active key: " + activeKid);
+        }
+
+        keySet = new KeySet(activeKid, keys);
+        keysFileModified = modified;
+        // Tokens verified with a key that was just removed must be checked again
+        Cache verifiedTokens = cacheManager.getCache(CacheConfig.VERIFIED_TOKENS);
+        if (verifiedTokens != null) {
+            verifiedTokens.clear();
+        }
+        logger.info("Loaded {} JWT signing keys, active kid: {}", keys.size(), activeKid);
+        return true;
+    }
+
+    @Scheduled(initialDelayString = "${cardealership.app.jwt-keys-reload-ms:60000}",
+            fixedDelayString = "${cardealership.app.jwt-keys-reload-ms:60000}")
+    public void reloadIfChanged() {
+        if (keysFile.isEmpty()) {
+            return;
+        }
+        try {
+            if (Files.getLastModifiedTime(Paths.get(keysFile)).toMillis() != keysFileModified) {
+                reload();
+            }
+        } catch (IOException | RuntimeException e) {
+            // Keep verifying with the current ring rather than locking everyone out
+            logger.error("Error reloading JWT keys from {}: {}", keysFile, e.getMessage());
+        }
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        return resolve(header.getKeyId());
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, String plaintext) {
+        return resolve(header.getKeyId());
+    }
+
+    private Key resolve(String kid) {
+        SigningKey key = keySet.keys.get(kid != null ? kid : DEFAULT_KID);
+        if (key == null) {
+            throw new SignatureException("Unknown JWT signing key: " + kid);
+        }
+        if (key.notAfter != null && Instant.now().isAfter(key.notAfter)) {
+            throw new SignatureException("JWT signing key has been retired: " + kid);
+        }
+        return key.key;
+    }
+
+    public static final class ActiveKey {
+        private final String kid;
+        private final SecretKey key;
+
+        private ActiveKey(String kid, SecretKey key) {
+            this.kid = kid;
+            this.key = key;
+        }
+
+        public String getKid() {
+            return kid;
+        }
+
+        public SecretKey getKey() {
+            return key;
+        }
+    }
+
+    private static final class KeySet {
+        private final String activeKid;
+        private final Map<String, SigningKey> keys;
+
+        private KeySet(String activeKid, Map<String, SigningKey> keys) {
+            this.activeKid = activeKid;
+            this.keys = keys;
+        }
+    }
+
+    private static final class SigningKey {
+        private final SecretKey key;
+        private final Instant notAfter;
+
+        private SigningKey(SecretKey key, Instant notAfter) {
+            this.key = key;
+            this.notAfter = notAfter;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.cardealership.security.services;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Counters and a latency histogram for password hashing, plus counts of sign-in requests
+ * turned away by the rate limiter or the bounded hashing executor.
+ */
+@Component
+public class AuthMetrics {
+    // Upper bounds of the hash latency histogram buckets, in milliseconds
+    private static final long[] HASH_BUCKETS_MS = {25, 50, 100, 200, 400, 800, 1600};
+
+    private final LongAdder hashCount = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAccumulator maxHashNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder rateLimitedByUsername = new LongAdder();
+    private final LongAdder rateLimitedByIp = new LongAdder();
+    private final LongAdder queueRejected = new LongAdder();
+    private final LongAdder[] hashBuckets = new LongAdder[HASH_BUCKETS_MS.length + 1];
+    private volatile int bcryptStrength;
+
+    public AuthMetrics() {
+        for (int i = 0; i < hashBuckets.length; i++) {
+            hashBuckets[i] = new LongAdder();
+        }
+    }
+
+    public void setBcryptStrength(int bcryptStrength) {
+        this.bcryptStrength = bcryptStrength;
+    }
+
+    public void recordHash(long nanos) {
+        hashCount.increment();
+        hashNanos.add(nanos);
+        maxHashNanos.accumulate(nanos);
+        long millis = nanos / 1_000_000;
+        int bucket = 0;
+        while (bucket < HASH_BUCKETS_MS.length && millis > HASH_BUCKETS_MS[bucket]) {
+            bucket++;
+        }
+        hashBuckets[bucket].increment();
+    }
+
+    public void recordRateLimitedByUsername() {
+        rateLimitedByUsername.increment();
+    }
+
+    public void recordRateLimitedByIp() {
+        rateLimitedByIp.increment();
+    }
+
+    public void recordQueueRejected() {
+        queueRejected.increment();
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long count = hashCount.sum();
+        stats.put("bcryptStrength", bcryptStrength);
+        stats.put("hashCount", count);
+        stats.put("hashMeanMs", count == 0 ? 0.0 : hashNanos.sum() / 1_000_000.0 / count);
+        stats.put("hashMaxMs", maxHashNanos.get() / 1_000_000.0);
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < HASH_BUCKETS_MS.length; i++) {
+            histogram.put("le" + HASH_BUCKETS_MS[i], hashBuckets[i].sum());
+        }
+        histogram.put("gt" + HASH_BUCKETS_MS[HASH_BUCKETS_MS.length - 1], hashBuckets[HASH_BUCKETS_MS.length].sum());
+        stats.put("hashHistogramMs", histogram);
+        stats.put("rateLimitedByUsername", rateLimitedByUsername.sum());
+        stats.put("rateLimitedByIp", rateLimitedByIp.sum());
+        stats.put("queueRejected", queueRejected.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,41 @@
+package com.cardealership.security.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Picks the highest BCrypt cost whose hash time on this host stays within a latency target.
+ * Each cost step doubles the work, so the search stops as soon as the next step would overshoot.
+ */
+public final class BCryptCostCalibrator {
+    private static final Logger logger = LoggerFactory.getLogger(BCryptCostCalibrator.class);
+    private static final String SAMPLE = "calibration-sample";
+
+    private BCryptCostCalibrator() {
+    }
+
+    public static int calibrate(long targetMs, int minStrength, int maxStrength) {
+        int strength = minStrength;
+        long elapsedMs = timeHash(strength);
+        while (strength < maxStrength && elapsedMs * 2 <= targetMs) {
+            strength++;
+            elapsedMs = timeHash(strength);
+        }
+        // The last timing is for the chosen strength, so no extra hash is needed to report it
+        logger.info("Calibrated BCrypt strength {} (~{} ms per hash, target {} ms)", strength, elapsedMs, targetMs);
+        return strength;
+    }
+
+    private static long timeHash(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long best = Long.MAX_VALUE;
+        // Best of two runs filters out JIT warm-up and scheduling noise
+        for (int i = 0; i < 2; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1_000_000;
+    }
+}
@@ -0,0 +1,81 @@
+package com.cardealership.security.services;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Token buckets per client IP and per username, checked before any password is hashed so a
+ * credential-stuffing burst is turned away cheaply.
+ */
+@Component
+public class LoginRateLimiter {
+    @Autowired
+    private AuthMetrics authMetrics;
+
+    @Value("${cardealership.auth.rate-limit.username-burst:5}")
+    private int usernameBurst;
+
+    @Value("${cardealership.auth.rate-limit.username-per-minute:5}")
+    private int usernamePerMinute;
+
+    @Value("${cardealership.auth.rate-limit.ip-burst:20}")
+    private int ipBurst;
+
+    @Value("${cardealership.auth.rate-limit.ip-per-minute:30}")
+    private int ipPerMinute;
+
+    private final Cache<String, TokenBucket> buckets = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterAccess(10, TimeUnit.MINUTES)
+            .build();
+
+    /**
+     * Takes a token for the IP and, when given, the username. Returns 0 when the attempt may
+     * proceed, otherwise the number of seconds the client should wait.
+     */
+    public long tryAcquire(String ip, String username) {
+        long retryAfter = buckets.get("ip:" + ip, key -> new TokenBucket(ipBurst, ipPerMinute)).tryConsume();
+        if (retryAfter > 0) {
+            authMetrics.recordRateLimitedByIp();
+            return retryAfter;
+        }
+        if (username != null) {
+            retryAfter = buckets.get("user:" + username.toLowerCase(), key -> new TokenBucket(usernameBurst, usernamePerMinute))
+                    .tryConsume();
+            if (retryAfter > 0) {
+                authMetrics.recordRateLimitedByUsername();
+            }
+        }
+        return retryAfter;
+    }
+
+    private static final class TokenBucket {
+        private final double capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long lastRefill = System.nanoTime();
+
+        private TokenBucket(int capacity, int perMinute) {
+            this.capacity = capacity;
+            this.tokensPerNano = perMinute / (double) TimeUnit.MINUTES.toNanos(1);
+            this.tokens = capacity;
+        }
+
+        private synchronized long tryConsume() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1 - tokens) / tokensPerNano / TimeUnit.SECONDS.toNanos(1)));
+        }
+    }
+}
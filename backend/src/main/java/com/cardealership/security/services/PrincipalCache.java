@@ -0,0 +1,59 @@
+package com.cardealership.security.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.cardealership.config.CacheConfig;
+
+/**
+ * Bounded cache of authenticated principals keyed by username. An entry is only used for tokens
+ * issued at the same token version, so bumping a user's version revokes their outstanding tokens
+ * even before the entry is evicted.
+ */
+@Component
+public class PrincipalCache {
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    /**
+     * Returns the principal for a token issued at {@code tokenVersion}, or {@code null} when the
+     * token has been revoked by a later version bump.
+     */
+    public UserDetailsImpl get(String username, int tokenVersion) {
+        Cache cache = cacheManager.getCache(CacheConfig.PRINCIPALS);
+        UserDetailsImpl principal = cache.get(username, UserDetailsImpl.class);
+        // A cached entry older than the token means the user changed since it was loaded
+        if (principal == null || principal.getTokenVersion() < tokenVersion) {
+            UserDetailsImpl loaded = (UserDetailsImpl) userDetailsService.loadUserByUsername(username);
+            // The request filter never needs the password hash, so it is not kept in memory
+            principal = new UserDetailsImpl(loaded.getId(), loaded.getUsername(), loaded.getEmail(), null,
+                    loaded.getAuthorities(), loaded.getTokenVersion());
+            cache.put(username, principal);
+        }
+        return principal.getTokenVersion() == tokenVersion ? principal : null;
+    }
+
+    /**
+     * Evicts {@code username} now and again once the surrounding transaction commits, so a request
+     * racing the update cannot leave the pre-commit state behind.
+     */
+    public void invalidate(String username) {
+        Cache cache = cacheManager.getCache(CacheConfig.PRINCIPALS);
+        cache.evict(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.evict(username);
+                }
+            });
+        }
+    }
+}
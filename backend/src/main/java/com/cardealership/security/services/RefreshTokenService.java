@@ -0,0 +1,135 @@
+package com.cardealership.security.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cardealership.model.RefreshToken;
+import com.cardealership.model.User;
+import com.cardealership.repository.RefreshTokenRepository;
+import com.cardealership.repository.UserRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Issues opaque refresh tokens so clients can renew access tokens without a password check.
+ * Tokens are single use: each refresh revokes the presented token and issues its replacement in
+ * the same family. Presenting a token that was already rotated means it leaked, so the whole
+ * family is revoked and the device has to sign in again.
+ */
+@Service
+public class RefreshTokenService {
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final int TOKEN_BYTES = 32;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${cardealership.app.jwtRefreshExpirationMs:2592000000}")
+    private long refreshExpirationMs;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public static class Rotation {
+        private final UserDetailsImpl principal;
+        private final String refreshToken;
+
+        public Rotation(UserDetailsImpl principal, String refreshToken) {
+            this.principal = principal;
+            this.refreshToken = refreshToken;
+        }
+
+        public UserDetailsImpl getPrincipal() {
+            return principal;
+        }
+
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+    }
+
+    @Transactional
+    public String issue(Long userId) {
+        return store(userRepository.getReferenceById(userId), UUID.randomUUID().toString());
+    }
+
+    // The revocations done on reuse must commit even though the caller gets an error
+    @Transactional(noRollbackFor = TokenRefreshException.class)
+    public Rotation rotate(String rawToken) {
+        RefreshToken token = refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .orElseThrow(() -> new TokenRefreshException("Refresh token is not valid"));
+        if (token.isRevoked()) {
+            int revoked = refreshTokenRepository.revokeFamily(token.getFamilyId());
+            logger.warn("Refresh token reuse detected for user {}; revoked {} tokens in its family",
+                    token.getUser().getId(), revoked);
+            throw new TokenRefreshException("Refresh token has been revoked");
+        }
+        if (token.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new TokenRefreshException("Refresh token has expired");
+        }
+
+        String replacement = store(token.getUser(), token.getFamilyId());
+        token.setRevoked(true);
+        token.setReplacedByHash(hash(replacement));
+        return new Rotation(UserDetailsImpl.build(token.getUser()), replacement);
+    }
+
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+    }
+
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        refreshTokenRepository.revokeAllForUser(userId);
+    }
+
+    @Scheduled(initialDelayString = "${cardealership.app.refresh-token-purge-ms:3600000}",
+            fixedDelayString = "${cardealership.app.refresh-token-purge-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpiredBefore(LocalDateTime.now());
+        if (deleted > 0) {
+            logger.info("Purged {} expired refresh tokens", deleted);
+        }
+    }
+
+    private String store(User user, String familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken token = new RefreshToken();
+        token.setUser(user);
+        token.setTokenHash(hash(rawToken));
+        token.setFamilyId(familyId);
+        token.setExpiresAt(LocalDateTime.now().plusNanos(refreshExpirationMs * 1_000_000));
+        refreshTokenRepository.save(token);
+        return rawToken;
+    }
+
+    // Tokens carry 256 random bits, so a fast unsalted hash is enough to keep them unusable at rest
+    private String hash(String rawToken) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
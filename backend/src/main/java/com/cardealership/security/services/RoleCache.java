@@ -0,0 +1,57 @@
+package com.cardealership.security.services;
+
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.cardealership.model.ERole;
+import com.cardealership.model.Role;
+import com.cardealership.repository.RoleRepository;
+
+/**
+ * The roles table is static reference data, so it is read once and served from memory.
+ */
+@Component
+public class RoleCache implements SmartInitializingSingleton {
+    @Autowired
+    private RoleRepository roleRepository;
+
+    private volatile Map<ERole, Role> roles = new EnumMap<>(ERole.class);
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Map<ERole, Role> loaded = new EnumMap<>(ERole.class);
+        for (Role role : roleRepository.findAll()) {
+            loaded.put(role.getName(), role);
+        }
+        roles = loaded;
+    }
+
+    public Role get(ERole name) {
+        Role role = roles.get(name);
+        if (role == null) {
+            throw new RuntimeException("Error: Role is not found.");
+        }
+        return role;
+    }
+
+    /**
+     * Maps the role names accepted by signup ("admin", anything else is a regular user) to roles.
+     */
+    public Set<Role> resolve(Set<String> names) {
+        Set<Role> resolved = new HashSet<>();
+        if (names == null || names.isEmpty()) {
+            resolved.add(get(ERole.ROLE_USER));
+            return resolved;
+        }
+        for (String name : names) {
+            resolved.add(get("admin".equals(name) ? ERole.ROLE_ADMIN : ERole.ROLE_USER));
+        }
+        return resolved;
+    }
+}
@@ -0,0 +1,7 @@
+package com.cardealership.security.services;
+
+public class TokenRefreshException extends RuntimeException {
+    public TokenRefreshException(String message) {
+        super(message);
+    }
+}
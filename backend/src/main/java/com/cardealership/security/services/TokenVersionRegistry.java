@@ -0,0 +1,68 @@
+package com.cardealership.security.services;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.cardealership.repository.UserRepository;
+
+/**
+ * In-memory view of every user's current token version, so tokens that carry their principal as
+ * claims can be checked for revocation without touching the database. Only users whose version
+ * moved past 0 (or who were deleted) are held; everyone else is implicitly at version 0.
+ */
+@Component
+public class TokenVersionRegistry implements SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(TokenVersionRegistry.class);
+    private static final int REVOKED = -1;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Map<Long, Integer> versions = new ConcurrentHashMap<>();
+
+    // Seeded before the web server starts accepting requests
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (UserRepository.TokenVersionView view : userRepository.findTokenVersions()) {
+            versions.put(view.getId(), view.getTokenVersion());
+        }
+        logger.info("Loaded token versions for {} users", versions.size());
+    }
+
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        return versions.getOrDefault(userId, 0) == tokenVersion;
+    }
+
+    /**
+     * Records {@code tokenVersion} once the surrounding transaction commits, so a rollback never
+     * revokes tokens for a version that was not persisted.
+     */
+    public void update(Long userId, int tokenVersion) {
+        afterCommit(() -> versions.put(userId, tokenVersion));
+    }
+
+    public void revoke(Long userId) {
+        afterCommit(() -> versions.put(userId, REVOKED));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,89 @@
+package com.cardealership.service;
+
+import com.cardealership.model.Car;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position within an inventory listing. Clients only ever see the encoded,
+ * opaque form returned as {@code nextCursor}.
+ */
+public final class CarCursor {
+
+    public enum Sort {
+        ID,
+        UPDATED
+    }
+
+    private static final String SEPARATOR = "|";
+
+    private final Sort sort;
+    private final Long id;
+    private final LocalDateTime updatedAt;
+
+    private CarCursor(Sort sort, Long id, LocalDateTime updatedAt) {
+        this.sort = sort;
+        this.id = id;
+        this.updatedAt = updatedAt;
+    }
+
+    public static CarCursor start(String sort) {
+        if (sort == null || sort.isEmpty() || sort.equalsIgnoreCase("id")) {
+            return new CarCursor(Sort.ID, null, null);
+        }
+        if (sort.equalsIgnoreCase("updated")) {
+            return new CarCursor(Sort.UPDATED, null, null);
+        }
+        throw new IllegalArgumentException("Unsupported sort: " + sort);
+    }
+
+    public static CarCursor after(Sort sort, Car last) {
+        return after(sort, last.getId(), last.getUpdatedAt());
+    }
+
+    public static CarCursor after(Sort sort, Long id, LocalDateTime updatedAt) {
+        return new CarCursor(sort, id, sort == Sort.UPDATED ? updatedAt : null);
+    }
+
+    public static CarCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR);
+            if (parts.length == 2 && parts[0].equals("i")) {
+                return new CarCursor(Sort.ID, Long.valueOf(parts[1]), null);
+            }
+            if (parts.length == 3 && parts[0].equals("u")) {
+                return new CarCursor(Sort.UPDATED, Long.valueOf(parts[2]), LocalDateTime.parse(parts[1]));
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // fall through to the uniform error below
+        }
+        throw new IllegalArgumentException("Invalid cursor");
+    }
+
+    public String encode() {
+        String raw = sort == Sort.ID
+                ? "i" + SEPARATOR + id
+                : "u" + SEPARATOR + updatedAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean isFirstPage() {
+        return id == null;
+    }
+
+    public Sort getSort() {
+        return sort;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,23 @@
+package com.cardealership.service;
+
+import com.cardealership.model.Car;
+
+/**
+ * An in-memory view of the inventory. {@link CarReadModelUpdater} builds every read model at
+ * startup and keeps it current as cars change.
+ */
+public interface CarReadModel {
+
+    String getName();
+
+    void clear();
+
+    /**
+     * Adds the car, or replaces what the read model holds for it.
+     */
+    void upsert(Car car);
+
+    void remove(long carId);
+
+    int size();
+}
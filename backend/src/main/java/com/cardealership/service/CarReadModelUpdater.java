@@ -0,0 +1,66 @@
+package com.cardealership.service;
+
+import com.cardealership.event.CarChangedEvent;
+import com.cardealership.model.Car;
+import com.cardealership.repository.CarRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Feeds every {@link CarReadModel} from one pass over the cars table at startup and, after each
+ * committed change, from a single reload of the changed car.
+ */
+@Service
+public class CarReadModelUpdater {
+    private static final Logger logger = LoggerFactory.getLogger(CarReadModelUpdater.class);
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private List<CarReadModel> readModels;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        readModels.forEach(CarReadModel::clear);
+        try (Stream<Car> cars = carRepository.streamAllByOrderByIdAsc()) {
+            cars.forEach(car -> {
+                readModels.forEach(readModel -> readModel.upsert(car));
+                entityManager.detach(car);
+            });
+        }
+        long elapsed = System.currentTimeMillis() - start;
+        for (CarReadModel readModel : readModels) {
+            logger.info("Built {} for {} cars in {} ms", readModel.getName(), readModel.size(), elapsed);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onCarChanged(CarChangedEvent event) {
+        Optional<Car> car = event.getType() == CarChangedEvent.Type.DELETED
+                ? Optional.empty()
+                : carRepository.findById(event.getCarId());
+        for (CarReadModel readModel : readModels) {
+            car.ifPresentOrElse(readModel::upsert, () -> readModel.remove(event.getCarId()));
+        }
+    }
+}
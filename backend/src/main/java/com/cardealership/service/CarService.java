@@ -1,35 +1,78 @@
 package com.cardealership.service;
 
+import com.cardealership.config.CacheConfig;
+import com.cardealership.dto.CarListingDTO;
+import com.cardealership.dto.CarSearchCriteria;
+import com.cardealership.dto.CursorPageDTO;
 import com.cardealership.model.Car;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface CarService {
-    @Cacheable(value = "cars", key = "'all'")
+    // Uncached: the listing endpoints keep the serialized result in ListingResponseCache instead
     List<Car> getAllCars();
 
-    @Cacheable(value = "cars", key = "#id")
+    CursorPageDTO<Car> getCarsPage(String cursor, Integer size, String sort);
+
+    CursorPageDTO<CarListingDTO> getCarListingPage(String cursor, Integer size, String sort);
+
+    void streamAllCars(Consumer<Car> consumer);
+
+    @Cacheable(value = CacheConfig.CAR_BY_ID, key = "#id", unless = "#result == null")
     Optional<Car> getCarById(Long id);
 
-    @CacheEvict(value = "cars", allEntries = true)
+    @CacheEvict(value = CacheConfig.CAR_SEARCH, allEntries = true)
     Car saveCar(Car car, List<MultipartFile> images);
 
-    @CacheEvict(value = "cars", allEntries = true)
-    void deleteCar(Long id);
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.CAR_BY_ID, key = "#id"),
+            @CacheEvict(value = CacheConfig.CAR_SEARCH, allEntries = true)
+    })
+    boolean deleteCar(Long id, Long expectedVersion);
 
-    @Cacheable(value = "cars", key = "'search_' + #make + '_' + #model + '_' + #minYear + '_' + #maxYear + '_' + #minPrice + '_' + #maxPrice")
-    List<Car> searchCars(String make, String model, Integer minYear, Integer maxYear, Double minPrice, Double maxPrice);
+    @Cacheable(value = CacheConfig.CAR_SEARCH)
+    Page<Car> searchCars(CarSearchCriteria criteria, Pageable pageable);
 
-    @Cacheable(value = "cars", key = "'status_' + #status")
     List<Car> getCarsByStatus(String status);
 
-    @CacheEvict(value = "cars", key = "#car.id")
-    Car updateCar(Car car, List<MultipartFile> newImages);
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.CAR_BY_ID, key = "#id"),
+            @CacheEvict(value = CacheConfig.CAR_SEARCH, allEntries = true)
+    })
+    Optional<Car> updateCar(Long id, Car changes, List<MultipartFile> newImages, Long expectedVersion);
+
+    /**
+     * Applies a JSON Merge Patch of scalar fields to the car. Only changed columns are written,
+     * and listings move to a new {@code InventoryGeneration} only when a column changed.
+     */
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.CAR_BY_ID, key = "#id"),
+            @CacheEvict(value = CacheConfig.CAR_SEARCH, allEntries = true)
+    })
+    Optional<Car> patchCar(Long id, JsonNode patch, Long expectedVersion);
+
+    /**
+     * Moves the car to {@code status} with a single conditional UPDATE and returns its new version.
+     * Throws {@link IllegalArgumentException} for a status outside {@link Car#STATUSES}.
+     */
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.CAR_BY_ID, key = "#id"),
+            @CacheEvict(value = CacheConfig.CAR_SEARCH, allEntries = true)
+    })
+    Optional<Long> updateStatus(Long id, String status, Long expectedVersion);
 
-    @CacheEvict(value = "cars", key = "#id")
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.CAR_BY_ID, key = "#id"),
+            @CacheEvict(value = CacheConfig.CAR_SEARCH, allEntries = true)
+    })
     Car updateCarImages(Long id, List<MultipartFile> images);
-} 
\ No newline at end of file
+}
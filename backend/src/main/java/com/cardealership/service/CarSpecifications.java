@@ -0,0 +1,109 @@
+package com.cardealership.service;
+
+import com.cardealership.dto.CarSearchCriteria;
+import com.cardealership.model.Car;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Builds car search queries that only carry predicates for the criteria actually supplied,
+ * so range filters can be served by the composite indexes on {@code cars}.
+ */
+public final class CarSpecifications {
+    private static final char LIKE_ESCAPE = '\\';
+    private static final Set<String> SORTABLE_PROPERTIES =
+            Set.of("id", "price", "manufacturedYear", "mileage", "createdAt", "updatedAt");
+
+    private CarSpecifications() {
+    }
+
+    public static Specification<Car> matching(CarSearchCriteria criteria) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (StringUtils.hasText(criteria.getStatus())) {
+                predicates.add(cb.equal(root.get("status"), criteria.getStatus()));
+            }
+            if (criteria.getMinYear() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("manufacturedYear"), criteria.getMinYear()));
+            }
+            if (criteria.getMaxYear() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("manufacturedYear"), criteria.getMaxYear()));
+            }
+            if (criteria.getMinPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), criteria.getMinPrice()));
+            }
+            if (criteria.getMaxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), criteria.getMaxPrice()));
+            }
+            if (criteria.getMinMileage() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("mileage"), criteria.getMinMileage()));
+            }
+            if (criteria.getMaxMileage() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("mileage"), criteria.getMaxMileage()));
+            }
+            // The *Key columns hold upper-cased copies, so these compare plain (indexable) columns
+            if (StringUtils.hasText(criteria.getMake())) {
+                predicates.add(cb.like(root.get("makeKey"), startsWith(criteria.getMake()), LIKE_ESCAPE));
+            }
+            if (StringUtils.hasText(criteria.getModel())) {
+                predicates.add(cb.like(root.get("modelKey"), startsWith(criteria.getModel()), LIKE_ESCAPE));
+            }
+            if (StringUtils.hasText(criteria.getFuelType())) {
+                predicates.add(cb.equal(root.get("fuelTypeKey"), normalize(criteria.getFuelType())));
+            }
+            if (StringUtils.hasText(criteria.getTransmission())) {
+                predicates.add(cb.equal(root.get("transmissionKey"), normalize(criteria.getTransmission())));
+            }
+            if (StringUtils.hasText(criteria.getColor())) {
+                predicates.add(cb.equal(root.get("colorKey"), normalize(criteria.getColor())));
+            }
+            if (StringUtils.hasText(criteria.getCarCondition())) {
+                predicates.add(cb.equal(root.get("carConditionKey"), normalize(criteria.getCarCondition())));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Parses {@code property[,asc|desc]}; only indexed or cheap-to-sort columns are accepted.
+     */
+    public static Sort parseSort(String sort) {
+        if (!StringUtils.hasText(sort)) {
+            return Sort.by(Sort.Direction.ASC, "id");
+        }
+        String[] parts = sort.split(",");
+        String property = parts[0].trim();
+        if (!SORTABLE_PROPERTIES.contains(property)) {
+            throw new IllegalArgumentException("Unsupported sort property: " + property);
+        }
+        Sort.Direction direction = parts.length > 1
+                ? Sort.Direction.fromOptionalString(parts[1].trim())
+                        .orElseThrow(() -> new IllegalArgumentException("Unsupported sort direction: " + parts[1]))
+                : Sort.Direction.ASC;
+        Sort order = Sort.by(direction, property);
+        // Tie-break on id so equal sort keys page deterministically
+        return property.equals("id") ? order : order.and(Sort.by(Sort.Direction.ASC, "id"));
+    }
+
+    // Matches the database's UPPER() used to generate the key columns
+    private static String normalize(String value) {
+        return value.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static String startsWith(String value) {
+        String escaped = normalize(value)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return escaped + "%";
+    }
+}
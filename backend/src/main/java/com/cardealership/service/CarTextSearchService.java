@@ -0,0 +1,87 @@
+package com.cardealership.service;
+
+import com.cardealership.model.Car;
+import com.cardealership.repository.CarRepository;
+import com.cardealership.search.TextIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class CarTextSearchService implements CarReadModel {
+    private static final int MAKE_WEIGHT = 5;
+    private static final int MODEL_WEIGHT = 5;
+    private static final int VIN_WEIGHT = 4;
+    private static final int COLOR_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int MAX_RESULTS = 100;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    private final TextIndex index = new TextIndex();
+
+    @Override
+    public String getName() {
+        return "text index";
+    }
+
+    @Override
+    public void clear() {
+        index.clear();
+    }
+
+    @Override
+    public void upsert(Car car) {
+        Map<String, Integer> weights = new HashMap<>();
+        addField(weights, car.getMake(), MAKE_WEIGHT);
+        addField(weights, car.getModel(), MODEL_WEIGHT);
+        addField(weights, car.getVin(), VIN_WEIGHT);
+        addField(weights, car.getColor(), COLOR_WEIGHT);
+        addField(weights, car.getDescription(), DESCRIPTION_WEIGHT);
+        index.index(Math.toIntExact(car.getId()), weights);
+    }
+
+    @Override
+    public void remove(long carId) {
+        index.remove(Math.toIntExact(carId));
+    }
+
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    @Transactional(readOnly = true)
+    public List<Car> search(String query, int limit) {
+        List<TextIndex.Hit> hits = index.search(query, Math.max(1, Math.min(limit, MAX_RESULTS)));
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = hits.stream().map(hit -> (long) hit.getDocId()).collect(Collectors.toList());
+        Map<Long, Car> cars = carRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Car::getId, Function.identity()));
+
+        List<Car> ranked = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Car car = cars.get(id);
+            if (car != null) {
+                ranked.add(car);
+            }
+        }
+        return ranked;
+    }
+
+    private void addField(Map<String, Integer> weights, String value, int weight) {
+        for (String token : TextIndex.tokenize(value)) {
+            weights.merge(token, weight, Integer::sum);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.cardealership.service;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+/**
+ * Tells apart the database constraints behind a {@link DataIntegrityViolationException}.
+ */
+public final class Constraints {
+
+    private Constraints() {
+    }
+
+    /**
+     * Whether {@code e} was raised by the named constraint. H2 reports the name upper-cased and
+     * qualified with the table, so the check is a case-insensitive contains.
+     */
+    public static boolean violates(DataIntegrityViolationException e, String constraint) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                String name = violation.getConstraintName();
+                return name != null && name.toLowerCase(Locale.ROOT).contains(constraint);
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,65 @@
+package com.cardealership.service;
+
+/**
+ * Entity-tag helpers for conditional requests.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String forVersion(Long version) {
+        return "\"v" + (version != null ? version : 0) + "\"";
+    }
+
+    /**
+     * Matches an {@code If-None-Match} header, which compares weakly, against {@code etag}.
+     */
+    public static boolean noneMatchHits(String header, String etag) {
+        return matches(header, etag, true);
+    }
+
+    /**
+     * Reads the car version an {@code If-Match} header asks for: {@code null} when the header is
+     * absent or {@code *}, otherwise the version of the first strong {@code "v<n>"} tag, or
+     * {@code -1}, which matches no version, when there is none.
+     */
+    public static Long versionFromIfMatch(String header) {
+        if (header == null) {
+            return null;
+        }
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return null;
+            }
+            if (tag.length() > 3 && tag.startsWith("\"v") && tag.endsWith("\"")) {
+                try {
+                    return Long.parseLong(tag.substring(2, tag.length() - 1));
+                } catch (NumberFormatException e) {
+                    // not one of ours, keep looking
+                }
+            }
+        }
+        return -1L;
+    }
+
+    private static boolean matches(String header, String etag, boolean weak) {
+        if (header == null) {
+            return false;
+        }
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                if (!weak) {
+                    continue;
+                }
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,21 +1,54 @@
 package com.cardealership.service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
 public class FileStorageService {
+    private static final Logger logger = LoggerFactory.getLogger(FileStorageService.class);
+    static final String STAGING_DIR = ".staging";
+    private static final String CONTENT_ADDRESSED_DIR = "cas";
 
     @Value("${file.upload-dir}")
     private String uploadDir;
 
+    @Value("${file.content-addressed:true}")
+    private boolean contentAddressed;
+
+    // Uploads above this many pixels are decoded subsampled, so variants never need the full bitmap
+    @Value("${file.image.max-decoded-pixels:16000000}")
+    private long maxDecodedPixels;
+
+    // Uploads declaring more pixels than this are not decoded at all
+    @Value("${file.image.max-pixels:100000000}")
+    private long maxPixels;
+
     public String storeFile(MultipartFile file) throws IOException {
         // Create upload directory if it doesn't exist
         Path uploadPath = Paths.get(uploadDir);
@@ -24,9 +57,7 @@ public class FileStorageService {
         }
 
         // Generate unique filename
-        String originalFilename = file.getOriginalFilename();
-        String fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        String uniqueFilename = UUID.randomUUID().toString() + fileExtension;
+        String uniqueFilename = UUID.randomUUID().toString() + extensionOf(file.getOriginalFilename());
 
         // Save file
         Path filePath = uploadPath.resolve(uniqueFilename);
@@ -35,10 +66,164 @@ public class FileStorageService {
         return uniqueFilename;
     }
 
+    public Path stageFile(MultipartFile file) throws IOException {
+        Path stagingPath = Paths.get(uploadDir, STAGING_DIR);
+        Files.createDirectories(stagingPath);
+
+        // The staged name becomes the final filename once the image is promoted
+        Path stagedFile = stagingPath.resolve(UUID.randomUUID().toString() + extensionOf(file.getOriginalFilename()));
+        // Absolute File target lets the container move its temp file instead of copying it
+        file.transferTo(stagedFile.toAbsolutePath().toFile());
+        return stagedFile;
+    }
+
+    public StoredFile promoteStagedFile(Path stagedFile) throws IOException {
+        if (!contentAddressed) {
+            Path target = Paths.get(uploadDir).resolve(stagedFile.getFileName());
+            move(stagedFile, target);
+            return new StoredFile(target.getFileName().toString(), null);
+        }
+
+        // Blobs are named by content digest, so identical uploads share one file on disk
+        String contentHash = sha256(stagedFile);
+        String filename = CONTENT_ADDRESSED_DIR + "/" + contentHash.substring(0, 2) + "/"
+                + contentHash + extensionOf(stagedFile.getFileName().toString());
+        Path target = Paths.get(uploadDir).resolve(filename);
+        Files.createDirectories(target.getParent());
+        try {
+            publish(stagedFile, target);
+        } catch (FileAlreadyExistsException e) {
+            Files.deleteIfExists(stagedFile);
+            // Refresh the blob so a concurrent garbage collection sweep treats it as recently used
+            Files.setLastModifiedTime(target, FileTime.fromMillis(System.currentTimeMillis()));
+            logger.debug("Deduplicated upload against existing blob {}", filename);
+        }
+        return new StoredFile(filename, contentHash);
+    }
+
+    public Path contentAddressedRoot() {
+        return Paths.get(uploadDir, CONTENT_ADDRESSED_DIR);
+    }
+
+    public void discardStagedFile(Path stagedFile) {
+        try {
+            Files.deleteIfExists(stagedFile);
+        } catch (IOException e) {
+            logger.error("Error deleting staged file {}: {}", stagedFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the resized variants of a stored image next to it and returns their filenames.
+     * Returns an empty map when the file is not an image format ImageIO can decode.
+     */
+    public Map<ImageVariant, String> generateVariants(String filename) throws IOException {
+        Path uploadPath = Paths.get(uploadDir);
+        BufferedImage source = readImage(uploadPath.resolve(filename));
+        Map<ImageVariant, String> variants = new EnumMap<>(ImageVariant.class);
+        if (source == null) {
+            logger.debug("Skipping variants for {}: unsupported image format", filename);
+            return variants;
+        }
+
+        int dot = filename.lastIndexOf('.');
+        String baseName = dot > filename.lastIndexOf('/') ? filename.substring(0, dot) : filename;
+        for (ImageVariant variant : ImageVariant.values()) {
+            String variantFilename = baseName + "-" + variant.getSuffix() + ".jpg";
+            variants.put(variant, variantFilename);
+        }
+        // A deduplicated blob already has its variants
+        if (variants.values().stream().allMatch(variant -> Files.exists(uploadPath.resolve(variant)))) {
+            return variants;
+        }
+        for (ImageVariant variant : ImageVariant.values()) {
+            String variantFilename = variants.get(variant);
+            BufferedImage scaled = ImageResizer.scaleToWidth(source, variant.getMaxWidth());
+            ImageResizer.writeJpeg(scaled, uploadPath.resolve(variantFilename), variant.getQuality());
+        }
+        return variants;
+    }
+
+    /**
+     * Decodes an untrusted upload after checking the dimensions in its header, or returns
+     * {@code null} when no ImageIO reader understands it.
+     */
+    private BufferedImage readImage(Path file) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    throw new IOException("Image is too large to decode: " + reader.getWidth(0) + "x" + reader.getHeight(0));
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                if (pixels > maxDecodedPixels) {
+                    int step = (int) Math.ceil(Math.sqrt((double) pixels / maxDecodedPixels));
+                    param.setSourceSubsampling(step, step, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
     public void deleteFile(String filename) throws IOException {
         Path filePath = Paths.get(uploadDir).resolve(filename);
         if (Files.exists(filePath)) {
             Files.delete(filePath);
         }
     }
-} 
\ No newline at end of file
+
+    // Never replaces an existing blob: link(2) fails when the target exists, whereas the rename(2)
+    // behind an atomic move would silently overwrite it and skip the dedup path
+    private void publish(Path source, Path target) throws IOException {
+        try {
+            Files.createLink(target, source);
+        } catch (FileAlreadyExistsException e) {
+            throw e;
+        } catch (UnsupportedOperationException | IOException e) {
+            // No hard links here; a plain move also refuses an existing target, though not atomically
+            Files.move(source, target);
+            return;
+        }
+        Files.deleteIfExists(source);
+    }
+
+    private void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target);
+        }
+    }
+
+    private String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            byte[] buffer = new byte[64 * 1024];
+            while (in.read(buffer) != -1) {
+                // drain through the digest
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private String extensionOf(String originalFilename) {
+        if (originalFilename == null || originalFilename.lastIndexOf('.') < 0) {
+            return "";
+        }
+        String extension = originalFilename.substring(originalFilename.lastIndexOf("."));
+        return extension.matches("\\.[A-Za-z0-9]{1,10}") ? extension.toLowerCase() : "";
+    }
+}
@@ -0,0 +1,97 @@
+package com.cardealership.service;
+
+import com.cardealership.repository.CarImageRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Deletes content-addressed blobs (and their variants) that no car image references any more.
+ * A blob counts as referenced while any car_images row carries its hash; recently written blobs
+ * are kept for a grace period so uploads that are still being ingested are never collected.
+ */
+@Service
+public class ImageBlobGarbageCollector {
+    private static final Logger logger = LoggerFactory.getLogger(ImageBlobGarbageCollector.class);
+    private static final Pattern BLOB_NAME = Pattern.compile("^([0-9a-f]{64})[.-]");
+    private static final int QUERY_BATCH_SIZE = 500;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private CarImageRepository carImageRepository;
+
+    @Value("${file.gc.grace-period-ms:3600000}")
+    private long gracePeriodMs;
+
+    @Scheduled(initialDelayString = "${file.gc.initial-delay-ms:300000}", fixedDelayString = "${file.gc.interval-ms:3600000}")
+    public void sweep() {
+        Path root = fileStorageService.contentAddressedRoot();
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+
+        Map<String, List<Path>> filesByHash = new HashMap<>();
+        try (Stream<Path> files = Files.walk(root)) {
+            files.filter(Files::isRegularFile).forEach(file -> {
+                Matcher matcher = BLOB_NAME.matcher(file.getFileName().toString());
+                if (matcher.find()) {
+                    filesByHash.computeIfAbsent(matcher.group(1), hash -> new ArrayList<>()).add(file);
+                }
+            });
+        } catch (IOException e) {
+            logger.error("Error scanning image blobs: {}", e.getMessage());
+            return;
+        }
+
+        long cutoff = System.currentTimeMillis() - gracePeriodMs;
+        List<String> hashes = new ArrayList<>(filesByHash.keySet());
+        int collected = 0;
+        for (int from = 0; from < hashes.size(); from += QUERY_BATCH_SIZE) {
+            List<String> batch = hashes.subList(from, Math.min(from + QUERY_BATCH_SIZE, hashes.size()));
+            Set<String> referenced = new HashSet<>(carImageRepository.findReferencedContentHashes(batch));
+            for (String hash : batch) {
+                if (!referenced.contains(hash) && collect(filesByHash.get(hash), cutoff)) {
+                    collected++;
+                }
+            }
+        }
+        if (collected > 0) {
+            logger.info("Collected {} unreferenced image blobs", collected);
+        }
+    }
+
+    private boolean collect(List<Path> files, long cutoff) {
+        try {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toMillis() > cutoff) {
+                    return false;
+                }
+            }
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+            return true;
+        } catch (IOException e) {
+            logger.error("Error collecting image blob {}: {}", files.get(0), e.getMessage());
+            return false;
+        }
+    }
+}
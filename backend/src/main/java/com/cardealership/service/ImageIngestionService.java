@@ -0,0 +1,193 @@
+package com.cardealership.service;
+
+import com.cardealership.config.CacheConfig;
+import com.cardealership.config.ImageIngestionConfig;
+import com.cardealership.dto.ImageStatusDTO;
+import com.cardealership.model.Car;
+import com.cardealership.model.CarImage;
+import com.cardealership.model.ImageStatus;
+import com.cardealership.repository.CarImageRepository;
+import com.cardealership.repository.CarRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+/**
+ * Moves uploaded image bytes off the request path. Uploads are staged in parallel before the
+ * metadata transaction starts, recorded as {@link ImageStatus#PENDING}, and promoted into the
+ * upload directory (with their resized variants) by a bounded worker pool once the transaction
+ * has committed. In content-addressed mode identical uploads resolve to a single stored blob.
+ */
+@Service
+public class ImageIngestionService {
+    private static final Logger logger = LoggerFactory.getLogger(ImageIngestionService.class);
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private CarImageRepository carImageRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private InventoryGeneration inventoryGeneration;
+
+    @Autowired
+    @Qualifier(ImageIngestionConfig.EXECUTOR)
+    private Executor executor;
+
+    public List<Path> stage(List<MultipartFile> files) {
+        if (files == null || files.isEmpty()) {
+            return List.of();
+        }
+        List<CompletableFuture<Path>> futures = files.stream()
+                .map(file -> CompletableFuture.supplyAsync(() -> stageFile(file), executor))
+                .collect(Collectors.toList());
+
+        List<Path> staged = new ArrayList<>(files.size());
+        Throwable failure = null;
+        for (CompletableFuture<Path> future : futures) {
+            try {
+                staged.add(future.join());
+            } catch (CompletionException e) {
+                failure = e.getCause();
+            }
+        }
+        if (failure != null) {
+            discard(staged);
+            logger.error("Error saving image: {}", failure.getMessage());
+            throw new RuntimeException("Failed to save image: " + failure.getMessage());
+        }
+        return staged;
+    }
+
+    public void attach(Car car, List<Path> staged) {
+        int nextDisplayOrder = car.getImages().stream().mapToInt(CarImage::getDisplayOrder).max().orElse(-1) + 1;
+        boolean hasPrimary = car.getImages().stream().anyMatch(CarImage::isPrimary);
+        for (Path stagedFile : staged) {
+            CarImage image = new CarImage();
+            image.setImageUrl(stagedFile.getFileName().toString());
+            image.setStatus(ImageStatus.PENDING);
+            image.setDisplayOrder(nextDisplayOrder++);
+            image.setPrimary(!hasPrimary);
+            hasPrimary = true;
+            car.addImage(image);
+        }
+    }
+
+    /**
+     * Hands the staged files of {@code savedCar} to the worker pool once the current
+     * transaction commits. Must be called inside that transaction, after the images were persisted.
+     */
+    public void ingestAfterCommit(Car savedCar, List<Path> staged) {
+        if (staged.isEmpty()) {
+            return;
+        }
+        Map<String, Path> stagedByName = new HashMap<>();
+        for (Path stagedFile : staged) {
+            stagedByName.put(stagedFile.getFileName().toString(), stagedFile);
+        }
+        Long carId = savedCar.getId();
+        Map<Long, Path> pending = new HashMap<>();
+        for (CarImage image : savedCar.getImages()) {
+            if (image.getStatus() == ImageStatus.PENDING && stagedByName.containsKey(image.getImageUrl())) {
+                pending.put(image.getId(), stagedByName.get(image.getImageUrl()));
+            }
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                pending.forEach((imageId, stagedFile) -> executor.execute(() -> ingest(carId, imageId, stagedFile)));
+            }
+        });
+    }
+
+    public void discard(List<Path> staged) {
+        staged.forEach(fileStorageService::discardStagedFile);
+    }
+
+    public List<ImageStatusDTO> getImageStatuses(Long carId) {
+        return carImageRepository.findByCarIdOrderByDisplayOrderAsc(carId).stream()
+                .map(image -> new ImageStatusDTO(image.getId(), image.getImageUrl(), image.getStatus()))
+                .collect(Collectors.toList());
+    }
+
+    private Path stageFile(MultipartFile file) {
+        try {
+            return fileStorageService.stageFile(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void ingest(Long carId, Long imageId, Path stagedFile) {
+        try {
+            StoredFile stored = fileStorageService.promoteStagedFile(stagedFile);
+            String filename = stored.getFilename();
+            Map<ImageVariant, String> variants = generateVariants(filename);
+            int updated = carImageRepository.markReady(imageId, filename, stored.getContentHash(),
+                    variants.get(ImageVariant.THUMBNAIL), variants.get(ImageVariant.CARD), variants.get(ImageVariant.FULL));
+            // The car was deleted while the image was queued; shared blobs are left to the garbage collector
+            if (updated == 0 && stored.getContentHash() == null) {
+                fileStorageService.deleteFile(filename);
+                for (String variant : variants.values()) {
+                    fileStorageService.deleteFile(variant);
+                }
+            }
+            logger.debug("Image {} for car {} is ready", imageId, carId);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Error ingesting image {} for car {}: {}", imageId, carId, e.getMessage());
+            fileStorageService.discardStagedFile(stagedFile);
+            carImageRepository.updateStatus(imageId, ImageStatus.FAILED);
+        }
+        carRepository.incrementVersion(carId);
+        evictCar(carId);
+    }
+
+    private Map<ImageVariant, String> generateVariants(String filename) {
+        try {
+            return fileStorageService.generateVariants(filename);
+        } catch (IOException | RuntimeException e) {
+            // The original is still usable; listings fall back to it
+            logger.error("Error generating variants for {}: {}", filename, e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private void evictCar(Long carId) {
+        Cache carById = cacheManager.getCache(CacheConfig.CAR_BY_ID);
+        if (carById != null) {
+            carById.evict(carId);
+        }
+        Cache carSearch = cacheManager.getCache(CacheConfig.CAR_SEARCH);
+        if (carSearch != null) {
+            carSearch.clear();
+        }
+        inventoryGeneration.bump();
+    }
+}
@@ -0,0 +1,29 @@
+package com.cardealership.service;
+
+public enum ImageVariant {
+    THUMBNAIL("thumb", 320, 0.75f),
+    CARD("card", 640, 0.80f),
+    FULL("full", 1600, 0.85f);
+
+    private final String suffix;
+    private final int maxWidth;
+    private final float quality;
+
+    ImageVariant(String suffix, int maxWidth, float quality) {
+        this.suffix = suffix;
+        this.maxWidth = maxWidth;
+        this.quality = quality;
+    }
+
+    public String getSuffix() {
+        return suffix;
+    }
+
+    public int getMaxWidth() {
+        return maxWidth;
+    }
+
+    public float getQuality() {
+        return quality;
+    }
+}
@@ -0,0 +1,32 @@
+package com.cardealership.service;
+
+import com.cardealership.event.CarChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A counter that moves whenever anything shown in inventory listings changes: car rows after
+ * their transaction commits and images once ingestion finishes. Responses built at an older
+ * generation are stale.
+ */
+@Component
+public class InventoryGeneration {
+
+    // Seeded from the clock so generations are not reused across restarts
+    private final AtomicLong generation = new AtomicLong(System.currentTimeMillis());
+
+    public long current() {
+        return generation.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarChanged(CarChangedEvent event) {
+        bump();
+    }
+
+    public void bump() {
+        generation.incrementAndGet();
+    }
+}
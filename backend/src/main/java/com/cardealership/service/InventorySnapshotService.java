@@ -0,0 +1,41 @@
+package com.cardealership.service;
+
+import com.cardealership.dto.CarSearchCriteria;
+import com.cardealership.dto.FacetResultDTO;
+import com.cardealership.model.Car;
+import com.cardealership.search.InventorySnapshot;
+import org.springframework.stereotype.Service;
+
+@Service
+public class InventorySnapshotService implements CarReadModel {
+    private final InventorySnapshot snapshot = new InventorySnapshot();
+
+    @Override
+    public String getName() {
+        return "inventory snapshot";
+    }
+
+    @Override
+    public void clear() {
+        snapshot.clear();
+    }
+
+    @Override
+    public void upsert(Car car) {
+        snapshot.upsert(car);
+    }
+
+    @Override
+    public void remove(long carId) {
+        snapshot.remove(carId);
+    }
+
+    @Override
+    public int size() {
+        return snapshot.size();
+    }
+
+    public FacetResultDTO facets(CarSearchCriteria criteria) {
+        return snapshot.facets(criteria);
+    }
+}
@@ -0,0 +1,267 @@
+package com.cardealership.service;
+
+import com.cardealership.config.MailConfig;
+import com.cardealership.model.Lead;
+import com.cardealership.model.LeadStatus;
+import com.cardealership.repository.LeadRepository;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers dealer notifications for queued leads. Due pending leads are claimed, mailed outside
+ * any transaction on the dedicated dispatch thread, then marked sent. Every message of a poll goes out in a single
+ * {@link JavaMailSender#send(MimeMessage...)} call, so they share one SMTP connection.
+ *
+ * <p>With {@code cardealership.leads.digest.enabled} the leads for a recipient are held until the
+ * oldest has waited {@code digest.window-ms} or {@code digest.max-size} are waiting, then sent as
+ * one digest. Failures are retried with exponential backoff; after the last attempt, or on a
+ * message that can never be built, the lead is marked {@link LeadStatus#DEAD} and kept for
+ * manual follow-up.
+ */
+@Service
+public class LeadDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(LeadDispatcher.class);
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    @Autowired
+    private LeadRepository leadRepository;
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private LeadNotificationRenderer renderer;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier(MailConfig.DISPATCH_EXECUTOR)
+    private Executor dispatchExecutor;
+
+    @Value("${cardealership.leads.batch-size:200}")
+    private int batchSize;
+
+    @Value("${cardealership.leads.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${cardealership.leads.backoff-initial-ms:30000}")
+    private long backoffInitialMs;
+
+    @Value("${cardealership.leads.backoff-max-ms:3600000}")
+    private long backoffMaxMs;
+
+    // A claimed lead whose dispatcher dies mid-send becomes due again after the lease
+    @Value("${cardealership.leads.claim-lease-ms:300000}")
+    private long claimLeaseMs;
+
+    @Value("${cardealership.leads.digest.enabled:false}")
+    private boolean digestEnabled;
+
+    @Value("${cardealership.leads.digest.window-ms:300000}")
+    private long digestWindowMs;
+
+    @Value("${cardealership.leads.digest.max-size:25}")
+    private int digestMaxSize;
+
+    private final AtomicBoolean dispatching = new AtomicBoolean();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong messages = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong dead = new AtomicLong();
+
+    @Scheduled(initialDelayString = "${cardealership.leads.dispatch-interval-ms:5000}",
+            fixedDelayString = "${cardealership.leads.dispatch-interval-ms:5000}")
+    public void scheduleDispatch() {
+        // Skipped while the previous poll is still talking to the mail server
+        if (!dispatching.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            dispatchExecutor.execute(() -> {
+                try {
+                    dispatch();
+                } catch (RuntimeException e) {
+                    logger.error("Lead dispatch failed: {}", e.getMessage(), e);
+                } finally {
+                    dispatching.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            dispatching.set(false);
+        }
+    }
+
+    /**
+     * Delivers the leads that are due now on the calling thread.
+     */
+    public void dispatch() {
+        LocalDateTime now = LocalDateTime.now();
+        int digestSize = digestEnabled ? Math.max(1, digestMaxSize) : 1;
+        // Held digests are filtered out by the query; skipping them here would let them use up the batch
+        List<LeadRepository.DueLead> due = digestEnabled
+                ? leadRepository.findDueDigests(now, now.minusNanos(digestWindowMs * 1_000_000), digestSize,
+                        PageRequest.of(0, batchSize))
+                : leadRepository.findDue(now, PageRequest.of(0, batchSize));
+        if (due.isEmpty()) {
+            return;
+        }
+
+        Map<String, List<LeadRepository.DueLead>> byRecipient = due.stream()
+                .collect(Collectors.groupingBy(LeadRepository.DueLead::getRecipient, LinkedHashMap::new, Collectors.toList()));
+
+        List<List<Lead>> batches = new ArrayList<>();
+        for (List<LeadRepository.DueLead> group : byRecipient.values()) {
+            List<Lead> claimed = claim(group, now);
+            for (int from = 0; from < claimed.size(); from += digestSize) {
+                batches.add(claimed.subList(from, Math.min(from + digestSize, claimed.size())));
+            }
+        }
+        if (!batches.isEmpty()) {
+            deliver(batches);
+        }
+    }
+
+    public long getSentCount() {
+        return sent.get();
+    }
+
+    public long getMessageCount() {
+        return messages.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public long getDeadCount() {
+        return dead.get();
+    }
+
+    private List<Lead> claim(List<LeadRepository.DueLead> group, LocalDateTime now) {
+        LocalDateTime leaseUntil = now.plusNanos(claimLeaseMs * 1_000_000);
+        return transactionTemplate.execute(status -> {
+            List<Long> ids = new ArrayList<>(group.size());
+            for (LeadRepository.DueLead lead : group) {
+                if (leadRepository.claim(lead.getId(), now, leaseUntil) == 1) {
+                    ids.add(lead.getId());
+                }
+            }
+            List<Lead> claimed = new ArrayList<>(leadRepository.findAllById(ids));
+            claimed.sort(Comparator.comparing(Lead::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparing(Lead::getId));
+            return claimed;
+        });
+    }
+
+    private void deliver(List<List<Lead>> batches) {
+        Map<MimeMessage, List<Lead>> leadsByMessage = new LinkedHashMap<>();
+        for (List<Lead> batch : batches) {
+            try {
+                leadsByMessage.put(notification(batch), batch);
+            } catch (MessagingException | MailException e) {
+                // The message itself is broken; retrying would fail the same way
+                batch.forEach(lead -> markDead(lead, e.getMessage()));
+            }
+        }
+        if (leadsByMessage.isEmpty()) {
+            return;
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        Exception connectionFailure = null;
+        try {
+            mailSender.send(leadsByMessage.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            if (failures.isEmpty()) {
+                // Raised after every message went out, e.g. when closing the connection fails
+                logger.warn("Lead notifications sent with a mail server warning: {}", e.getMessage());
+            }
+        } catch (MailException e) {
+            connectionFailure = e;
+        }
+
+        for (Map.Entry<MimeMessage, List<Lead>> entry : leadsByMessage.entrySet()) {
+            Exception failure = connectionFailure != null ? connectionFailure : failures.get(entry.getKey());
+            if (failure == null) {
+                List<Long> ids = entry.getValue().stream().map(Lead::getId).collect(Collectors.toList());
+                transactionTemplate.executeWithoutResult(status -> leadRepository.markSent(ids, LocalDateTime.now()));
+                sent.addAndGet(ids.size());
+                messages.incrementAndGet();
+            } else {
+                entry.getValue().forEach(lead -> retryOrGiveUp(lead, failure.getMessage()));
+            }
+        }
+    }
+
+    private MimeMessage notification(List<Lead> leads) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, false, "UTF-8");
+        helper.setTo(leads.get(0).getRecipient());
+        helper.setSubject(renderer.subject(leads));
+        helper.setText(renderer.body(leads));
+        return message;
+    }
+
+    private void retryOrGiveUp(Lead lead, String error) {
+        int attempt = lead.getAttempts() + 1;
+        if (attempt >= maxAttempts) {
+            markDead(lead, error);
+            return;
+        }
+        LocalDateTime retryAt = LocalDateTime.now().plusNanos(backoff(attempt) * 1_000_000);
+        transactionTemplate.executeWithoutResult(status ->
+                leadRepository.markFailed(lead.getId(), LeadStatus.PENDING, retryAt, truncate(error)));
+        failed.incrementAndGet();
+        logger.warn("Lead {} notification failed (attempt {} of {}), retrying at {}: {}",
+                lead.getId(), attempt, maxAttempts, retryAt, error);
+    }
+
+    private void markDead(Lead lead, String error) {
+        transactionTemplate.executeWithoutResult(status ->
+                leadRepository.markFailed(lead.getId(), LeadStatus.DEAD, lead.getNextAttemptAt(), truncate(error)));
+        dead.incrementAndGet();
+        logger.error("Lead {} notification abandoned after {} attempts: {}", lead.getId(), lead.getAttempts() + 1, error);
+    }
+
+    // Doubles per attempt up to the cap, with jitter so a mail outage does not end in a retry storm
+    private long backoff(int attempt) {
+        long delay = backoffInitialMs << Math.min(attempt - 1, 30);
+        delay = Math.min(delay < 0 ? backoffMaxMs : delay, backoffMaxMs);
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    private String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,164 @@
+package com.cardealership.service;
+
+import com.cardealership.model.Lead;
+import com.cardealership.repository.LeadRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Spots repeat submissions: a lead whose VIN, phone number or email matches a lead received
+ * within {@code cardealership.leads.duplicate-window-ms} is a duplicate of that lead. Each
+ * normalized identifier is kept only as a truncated SHA-256 fingerprint, expiring when the
+ * window of the lead it points to closes. The index is seeded from the database at startup.
+ */
+@Component
+public class LeadDuplicateDetector implements SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(LeadDuplicateDetector.class);
+    private static final int FINGERPRINT_BYTES = 16;
+    private static final int PHONE_DIGITS = 10;
+
+    @Autowired
+    private LeadRepository leadRepository;
+
+    @Value("${cardealership.leads.duplicate-window-ms:604800000}")
+    private long windowMs;
+
+    @Value("${cardealership.leads.duplicate-max-fingerprints:200000}")
+    private long maxFingerprints;
+
+    private Cache<String, Seen> fingerprints;
+
+    private record Seen(Long leadId, LocalDateTime createdAt) {
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        fingerprints = Caffeine.newBuilder()
+                .maximumSize(maxFingerprints)
+                .expireAfter(new Expiry<String, Seen>() {
+                    @Override
+                    public long expireAfterCreate(String key, Seen seen, long currentTime) {
+                        Duration age = Duration.between(seen.createdAt(), LocalDateTime.now());
+                        return Math.max(0, Duration.ofMillis(windowMs).minus(age).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Seen seen, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Seen seen, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+
+        LocalDateTime since = LocalDateTime.now().minusNanos(windowMs * 1_000_000);
+        int seeded = 0;
+        for (LeadRepository.FingerprintView lead : leadRepository.findFingerprintsSince(since)) {
+            Seen seen = new Seen(lead.getId(), lead.getCreatedAt());
+            for (String key : keys(lead.getVin(), lead.getOwnerPhone(), lead.getOwnerEmail())) {
+                fingerprints.asMap().putIfAbsent(key, seen);
+            }
+            seeded++;
+        }
+        logger.info("Seeded lead duplicate detector with {} leads", seeded);
+    }
+
+    /**
+     * Returns the id of an earlier lead this one repeats, or {@code null} after recording its
+     * fingerprints. Fingerprints recorded inside a transaction that rolls back are withdrawn.
+     */
+    public Long register(Lead lead) {
+        List<String> keys = keys(lead.getVin(), lead.getOwnerPhone(), lead.getOwnerEmail());
+        Seen seen = new Seen(lead.getId(), lead.getCreatedAt() != null ? lead.getCreatedAt() : LocalDateTime.now());
+        List<String> added = new ArrayList<>(keys.size());
+        Long original = null;
+        for (String key : keys) {
+            // putIfAbsent keeps two concurrent submissions from both claiming to be first
+            Seen existing = fingerprints.asMap().putIfAbsent(key, seen);
+            if (existing == null) {
+                added.add(key);
+            } else if (original == null && !existing.leadId().equals(lead.getId())) {
+                original = existing.leadId();
+            }
+        }
+        if (original != null) {
+            added.forEach(key -> fingerprints.asMap().remove(key, seen));
+            return original;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        added.forEach(key -> fingerprints.asMap().remove(key, seen));
+                    }
+                }
+            });
+        }
+        return null;
+    }
+
+    public long size() {
+        return fingerprints.estimatedSize();
+    }
+
+    private List<String> keys(String vin, String phone, String email) {
+        List<String> keys = new ArrayList<>(3);
+        if (StringUtils.hasText(vin)) {
+            String normalized = vin.replaceAll("[^A-Za-z0-9]", "").toUpperCase(Locale.ROOT);
+            if (!normalized.isEmpty()) {
+                keys.add(fingerprint("vin", normalized));
+            }
+        }
+        if (StringUtils.hasText(phone)) {
+            // Compare national numbers so "+91 98xxx" and "98xxx" match
+            String digits = phone.replaceAll("\\D", "");
+            if (digits.length() > PHONE_DIGITS) {
+                digits = digits.substring(digits.length() - PHONE_DIGITS);
+            }
+            if (!digits.isEmpty()) {
+                keys.add(fingerprint("phone", digits));
+            }
+        }
+        if (StringUtils.hasText(email)) {
+            keys.add(fingerprint("email", email.trim().toLowerCase(Locale.ROOT)));
+        }
+        return keys;
+    }
+
+    private String fingerprint(String kind, String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(kind.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) ':');
+            byte[] hash = digest.digest(value.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, FINGERPRINT_BYTES));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.cardealership.service;
+
+import com.cardealership.model.Lead;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Renders dealer notifications for one lead or a digest of several. The per-lead section comes
+ * from {@code cardealership.leads.template} and is compiled once at startup.
+ */
+@Component
+public class LeadNotificationRenderer {
+    private static final DateTimeFormatter RECEIVED_AT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final int SECTION_SIZE_ESTIMATE = 400;
+
+    @Value("${cardealership.leads.template:classpath:mail/lead-notification.txt}")
+    private Resource templateResource;
+
+    private TextTemplate<Lead> section;
+
+    @PostConstruct
+    void init() throws IOException {
+        Map<String, Function<Lead, ?>> fields = new LinkedHashMap<>();
+        fields.put("id", Lead::getId);
+        fields.put("make", Lead::getMake);
+        fields.put("model", Lead::getModel);
+        fields.put("manufacturedYear", Lead::getManufacturedYear);
+        fields.put("mileage", Lead::getMileage);
+        fields.put("description", Lead::getDescription);
+        fields.put("color", Lead::getColor);
+        fields.put("transmission", Lead::getTransmission);
+        fields.put("fuelType", Lead::getFuelType);
+        fields.put("condition", Lead::getCondition);
+        fields.put("vin", Lead::getVin);
+        fields.put("ownerName", Lead::getOwnerName);
+        fields.put("ownerEmail", Lead::getOwnerEmail);
+        fields.put("ownerPhone", Lead::getOwnerPhone);
+        fields.put("preferredContactTime", Lead::getPreferredContactTime);
+        fields.put("askingPrice", lead -> lead.getAskingPrice() != null
+                ? lead.getAskingPrice().setScale(2, RoundingMode.HALF_UP).toPlainString() : null);
+        fields.put("createdAt", lead -> lead.getCreatedAt() != null ? RECEIVED_AT.format(lead.getCreatedAt()) : null);
+        section = TextTemplate.compile(templateResource.getContentAsString(StandardCharsets.UTF_8), fields);
+    }
+
+    public String subject(List<Lead> leads) {
+        if (leads.size() == 1) {
+            Lead lead = leads.get(0);
+            return "New Car Selling Inquiry - " + lead.getMake() + " " + lead.getModel();
+        }
+        return leads.size() + " New Car Selling Inquiries";
+    }
+
+    public String body(List<Lead> leads) {
+        StringBuilder body = new StringBuilder(SECTION_SIZE_ESTIMATE * (leads.size() + 1));
+        if (leads.size() == 1) {
+            body.append("New Car Selling Inquiry Received:\n\n");
+            section.render(leads.get(0), body);
+            body.append("\nPlease contact the owner as soon as possible.");
+            return body.toString();
+        }
+
+        body.append(leads.size()).append(" New Car Selling Inquiries Received:\n\n");
+        for (int i = 0; i < leads.size(); i++) {
+            Lead lead = leads.get(i);
+            body.append("Inquiry ").append(i + 1).append(" of ").append(leads.size());
+            if (lead.getCreatedAt() != null) {
+                body.append(" (received ").append(RECEIVED_AT.format(lead.getCreatedAt())).append(')');
+            }
+            body.append(":\n");
+            section.render(lead, body);
+            body.append('\n');
+        }
+        body.append("Please contact the owners as soon as possible.");
+        return body.toString();
+    }
+}
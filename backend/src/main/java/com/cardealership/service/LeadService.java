@@ -0,0 +1,112 @@
+package com.cardealership.service;
+
+import com.cardealership.dto.LeadDTO;
+import com.cardealership.dto.LeadSearchCriteria;
+import com.cardealership.model.Lead;
+import com.cardealership.model.LeadStatus;
+import com.cardealership.repository.LeadRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Records "sell your car" submissions. A lead is stored before it is acknowledged and the
+ * dealer notification is left to {@link LeadDispatcher}, so a slow or failing mail server
+ * never blocks or loses a submission.
+ */
+@Service
+public class LeadService {
+    private static final Logger logger = LoggerFactory.getLogger(LeadService.class);
+
+    @Autowired
+    private LeadRepository leadRepository;
+
+    @Autowired
+    private LeadDuplicateDetector duplicateDetector;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${cardealership.leads.notify-to:dealer@saimotors.com}")
+    private String notifyTo;
+
+    @Transactional
+    public Lead submit(LeadDTO dto) {
+        Lead lead = new Lead();
+        lead.setMake(dto.getMake());
+        lead.setModel(dto.getModel());
+        lead.setManufacturedYear(dto.getManufacturedYear());
+        lead.setMileage(dto.getMileage());
+        lead.setDescription(dto.getDescription());
+        lead.setColor(dto.getColor());
+        lead.setTransmission(dto.getTransmission());
+        lead.setFuelType(dto.getFuelType());
+        lead.setCondition(dto.getCondition());
+        lead.setVin(dto.getVin());
+        lead.setOwnerName(dto.getOwnerName());
+        lead.setOwnerEmail(dto.getOwnerEmail());
+        lead.setOwnerPhone(dto.getOwnerPhone());
+        lead.setPreferredContactTime(dto.getPreferredContactTime());
+        lead.setAskingPrice(dto.getAskingPrice() != null ? BigDecimal.valueOf(dto.getAskingPrice()) : null);
+        lead.setRecipient(notifyTo);
+        lead.setStatus(LeadStatus.PENDING);
+        lead.setNextAttemptAt(LocalDateTime.now());
+        Lead saved = leadRepository.save(lead);
+
+        // Repeat submissions are kept for the record but never notify the dealer again
+        Long original = duplicateDetector.register(saved);
+        if (original != null) {
+            saved.setStatus(LeadStatus.DUPLICATE);
+            saved.setDuplicateOf(original);
+            logger.debug("Lead {} duplicates lead {}", saved.getId(), original);
+        } else {
+            logger.debug("Queued lead {} for {} {}", saved.getId(), saved.getMake(), saved.getModel());
+        }
+        return saved;
+    }
+
+    @Transactional(readOnly = true)
+    public Page<Lead> searchLeads(LeadSearchCriteria criteria, Pageable pageable) {
+        logger.debug("Searching leads with criteria: {}, page: {}", criteria, pageable);
+        return leadRepository.findAll(LeadSpecifications.matching(criteria), pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamLeads(LeadSearchCriteria criteria, Sort sort, Consumer<Lead> consumer) {
+        logger.debug("Streaming leads with criteria: {}", criteria);
+        try (Stream<Lead> leads = leadRepository.findBy(LeadSpecifications.matching(criteria),
+                query -> query.sortBy(sort).stream())) {
+            leads.forEach(lead -> {
+                consumer.accept(lead);
+                entityManager.detach(lead);
+            });
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Map<LeadStatus, Long> countByStatus() {
+        Map<LeadStatus, Long> counts = new EnumMap<>(LeadStatus.class);
+        for (LeadStatus status : LeadStatus.values()) {
+            counts.put(status, 0L);
+        }
+        for (LeadRepository.StatusCount count : leadRepository.countByStatus()) {
+            counts.put(count.getStatus(), count.getCount());
+        }
+        return counts;
+    }
+}
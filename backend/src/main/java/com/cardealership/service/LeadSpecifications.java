@@ -0,0 +1,84 @@
+package com.cardealership.service;
+
+import com.cardealership.dto.LeadSearchCriteria;
+import com.cardealership.model.Lead;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Builds admin lead queries; status and creation time filters are served by the
+ * {@code (status, created_at)} and {@code created_at} indexes on {@code leads}.
+ */
+public final class LeadSpecifications {
+    private static final char LIKE_ESCAPE = '\\';
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "createdAt", "status", "askingPrice");
+
+    private LeadSpecifications() {
+    }
+
+    public static Specification<Lead> matching(LeadSearchCriteria criteria) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (criteria.getStatus() != null) {
+                predicates.add(cb.equal(root.get("status"), criteria.getStatus()));
+            }
+            if (criteria.getFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), criteria.getFrom()));
+            }
+            if (criteria.getTo() != null) {
+                predicates.add(cb.lessThan(root.get("createdAt"), criteria.getTo()));
+            }
+            if (StringUtils.hasText(criteria.getMake())) {
+                predicates.add(cb.like(cb.upper(root.get("make")), like(criteria.getMake()) + "%", LIKE_ESCAPE));
+            }
+            if (StringUtils.hasText(criteria.getModel())) {
+                predicates.add(cb.like(cb.upper(root.get("model")), like(criteria.getModel()) + "%", LIKE_ESCAPE));
+            }
+            if (StringUtils.hasText(criteria.getVin())) {
+                predicates.add(cb.equal(cb.upper(root.get("vin")), criteria.getVin().trim().toUpperCase()));
+            }
+            if (StringUtils.hasText(criteria.getEmail())) {
+                predicates.add(cb.equal(cb.upper(root.get("ownerEmail")), criteria.getEmail().trim().toUpperCase()));
+            }
+            if (StringUtils.hasText(criteria.getPhone())) {
+                predicates.add(cb.like(root.get("ownerPhone"), "%" + like(criteria.getPhone()) + "%", LIKE_ESCAPE));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Parses {@code property[,asc|desc]}; defaults to newest first.
+     */
+    public static Sort parseSort(String sort) {
+        if (!StringUtils.hasText(sort)) {
+            return Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id"));
+        }
+        String[] parts = sort.split(",");
+        String property = parts[0].trim();
+        if (!SORTABLE_PROPERTIES.contains(property)) {
+            throw new IllegalArgumentException("Unsupported sort property: " + property);
+        }
+        Sort.Direction direction = parts.length > 1
+                ? Sort.Direction.fromOptionalString(parts[1].trim())
+                        .orElseThrow(() -> new IllegalArgumentException("Unsupported sort direction: " + parts[1]))
+                : Sort.Direction.ASC;
+        Sort order = Sort.by(direction, property);
+        return property.equals("id") ? order : order.and(Sort.by(direction, "id"));
+    }
+
+    private static String like(String value) {
+        return value.trim().toUpperCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
@@ -0,0 +1,129 @@
+package com.cardealership.service;
+
+import com.cardealership.config.CacheConfig;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Holds public listing responses as finished bytes: the JSON, a gzipped copy and a strong
+ * ETag derived from the content. An entry is served while the {@link InventoryGeneration} it
+ * was built at is current, so a repeat request costs no query, no serialization and, when
+ * the client already has it, no body.
+ */
+@Service
+public class ListingResponseCache {
+    private static final int ETAG_BYTES = 12;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private InventoryGeneration inventoryGeneration;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Cache responses;
+
+    private record Entry(long generation, String etag, byte[] json, byte[] gzip) {
+    }
+
+    @PostConstruct
+    void init() {
+        responses = cacheManager.getCache(CacheConfig.LISTING_RESPONSES);
+    }
+
+    /**
+     * Serves {@code key} at the current generation, building it with {@code loader} on a miss. The
+     * loader must read the database, not another cache: a list cached before a commit could be
+     * stored again after the generation moved, and bytes built from it would never expire.
+     */
+    public ResponseEntity<byte[]> respond(String key, Supplier<?> loader, String ifNoneMatch, String acceptEncoding) {
+        Entry entry = get(key, loader);
+        if (ETags.noneMatchHits(ifNoneMatch, entry.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(entry.etag())
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(entry.etag())
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (entry.gzip() != null && acceptsGzip(acceptEncoding)) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(entry.gzip());
+        }
+        return builder.body(entry.json());
+    }
+
+    private Entry get(String key, Supplier<?> loader) {
+        long generation = inventoryGeneration.current();
+        Entry entry = responses.get(key, Entry.class);
+        if (entry != null && entry.generation() == generation) {
+            return entry;
+        }
+        // The generation is read before loading, so a change that lands mid-build leaves the entry stale
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(loader.get());
+            byte[] gzip = gzip(json);
+            entry = new Entry(generation, etag(json), json, gzip.length < json.length ? gzip : null);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        responses.put(key, entry);
+        return entry;
+    }
+
+    private boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private String etag(byte[] json) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + HexFormat.of().formatHex(hash, 0, ETAG_BYTES) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,22 @@
+package com.cardealership.service;
+
+public class StoredFile {
+    private final String filename;
+    private final String contentHash;
+
+    public StoredFile(String filename, String contentHash) {
+        this.filename = filename;
+        this.contentHash = contentHash;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    /**
+     * SHA-256 of the file content, or {@code null} when content-addressed storage is disabled.
+     */
+    public String getContentHash() {
+        return contentHash;
+    }
+}
@@ -0,0 +1,60 @@
+package com.cardealership.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A plain-text template with {@code {{field}}} placeholders. The source is split into literal
+ * and field segments once, so rendering is a walk over the segments with no parsing or format
+ * string interpretation. Unknown fields are rejected when the template is compiled.
+ */
+public final class TextTemplate<T> {
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{\\{\\s*([A-Za-z0-9_]+)\\s*}}");
+
+    private final List<String> literals;
+    private final List<Function<T, ?>> fields;
+
+    private TextTemplate(List<String> literals, List<Function<T, ?>> fields) {
+        this.literals = literals;
+        this.fields = fields;
+    }
+
+    public static <T> TextTemplate<T> compile(String source, Map<String, Function<T, ?>> accessors) {
+        List<String> literals = new ArrayList<>();
+        List<Function<T, ?>> fields = new ArrayList<>();
+        Matcher matcher = PLACEHOLDER.matcher(source);
+        int position = 0;
+        while (matcher.find()) {
+            Function<T, ?> accessor = accessors.get(matcher.group(1));
+            if (accessor == null) {
+                throw new IllegalArgumentException("Unknown template field: " + matcher.group(1));
+            }
+            literals.add(source.substring(position, matcher.start()));
+            fields.add(accessor);
+            position = matcher.end();
+        }
+        literals.add(source.substring(position));
+        return new TextTemplate<>(literals, fields);
+    }
+
+    public void render(T model, StringBuilder out) {
+        for (int i = 0; i < fields.size(); i++) {
+            out.append(literals.get(i));
+            Object value = fields.get(i).apply(model);
+            if (value != null) {
+                out.append(value);
+            }
+        }
+        out.append(literals.get(fields.size()));
+    }
+
+    public String render(T model) {
+        StringBuilder out = new StringBuilder();
+        render(model, out);
+        return out.toString();
+    }
+}
@@ -1,11 +1,16 @@
 package com.cardealership.service;
 
+import com.cardealership.model.ERole;
 import com.cardealership.model.User;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 public interface UserService {
     User createUser(User user);
+    List<User> importUsers(List<User> users);
     User updateUser(Long id, User user);
+    Optional<User> updateUserRoles(Long id, Set<ERole> roles);
     void deleteUser(Long id);
     User getUserById(Long id);
     List<User> getAllUsers();
@@ -1,31 +1,85 @@
 package com.cardealership.service.impl;
 
+import com.cardealership.dto.CarListingDTO;
+import com.cardealership.dto.CarSearchCriteria;
+import com.cardealership.dto.CursorPageDTO;
+import com.cardealership.event.CarChangedEvent;
 import com.cardealership.model.Car;
 import com.cardealership.model.CarImage;
+import com.cardealership.repository.CarImageRepository;
 import com.cardealership.repository.CarRepository;
+import com.cardealership.service.CarCursor;
 import com.cardealership.service.CarService;
+import com.cardealership.service.CarSpecifications;
 import com.cardealership.service.FileStorageService;
+import com.cardealership.service.ImageIngestionService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
 public class CarServiceImpl implements CarService {
     private static final Logger logger = LoggerFactory.getLogger(CarServiceImpl.class);
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("make", "model", "manufacturedYear", "price",
+            "mileage", "color", "transmission", "fuelType", "carCondition", "status", "vin", "description");
 
     @Autowired
     private CarRepository carRepository;
 
+    @Autowired
+    private CarImageRepository carImageRepository;
+
     @Autowired
     private FileStorageService fileStorageService;
 
+    @Autowired
+    private ImageIngestionService imageIngestionService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Override
     @Transactional(readOnly = true)
     public List<Car> getAllCars() {
@@ -33,6 +87,73 @@ public class CarServiceImpl implements CarService {
         return carRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<Car> getCarsPage(String cursor, Integer size, String sort) {
+        int pageSize = resolvePageSize(size);
+        CarCursor position = resolveCursor(cursor, sort);
+        logger.debug("Getting page of {} cars after cursor: {}", pageSize, cursor);
+
+        // Fetch one extra row to learn whether another page exists without a count query
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<Car> cars;
+        if (position.getSort() == CarCursor.Sort.UPDATED) {
+            cars = position.isFirstPage()
+                    ? carRepository.findFirstPageByUpdatedAt(limit)
+                    : carRepository.findPageAfterUpdatedAt(position.getUpdatedAt(), position.getId(), limit);
+        } else {
+            cars = carRepository.findPageAfterId(position.isFirstPage() ? 0L : position.getId(), limit);
+        }
+
+        boolean hasMore = cars.size() > pageSize;
+        List<Car> content = hasMore ? new ArrayList<>(cars.subList(0, pageSize)) : cars;
+        String nextCursor = hasMore
+                ? CarCursor.after(position.getSort(), content.get(content.size() - 1)).encode()
+                : null;
+        return new CursorPageDTO<>(content, nextCursor, hasMore, pageSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<CarListingDTO> getCarListingPage(String cursor, Integer size, String sort) {
+        int pageSize = resolvePageSize(size);
+        CarCursor position = resolveCursor(cursor, sort);
+        logger.debug("Getting listing page of {} cars after cursor: {}", pageSize, cursor);
+
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<CarListingDTO> rows;
+        if (position.getSort() == CarCursor.Sort.UPDATED) {
+            rows = position.isFirstPage()
+                    ? carRepository.findFirstListingPageByUpdatedAt(limit)
+                    : carRepository.findListingPageAfterUpdatedAt(position.getUpdatedAt(), position.getId(), limit);
+        } else {
+            rows = carRepository.findListingPageAfterId(position.isFirstPage() ? 0L : position.getId(), limit);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<CarListingDTO> content = hasMore ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+        attachPrimaryImages(content);
+        String nextCursor = null;
+        if (hasMore) {
+            CarListingDTO last = content.get(content.size() - 1);
+            nextCursor = CarCursor.after(position.getSort(), last.getId(), last.getUpdatedAt()).encode();
+        }
+        return new CursorPageDTO<>(content, nextCursor, hasMore, pageSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllCars(Consumer<Car> consumer) {
+        logger.debug("Streaming all cars from repository");
+        try (Stream<Car> cars = carRepository.streamAllByOrderByIdAsc()) {
+            cars.forEach(car -> {
+                consumer.accept(car);
+                // Detach each row once written so the persistence context stays flat
+                entityManager.detach(car);
+            });
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Optional<Car> getCarById(Long id) {
@@ -41,88 +162,128 @@ public class CarServiceImpl implements CarService {
     }
 
     @Override
-    @Transactional
     public Car saveCar(Car car, List<MultipartFile> images) {
         logger.debug("Saving car: {} with {} images", car, images != null ? images.size() : 0);
-        
-        // Handle images if provided
-        if (images != null && !images.isEmpty()) {
-            for (MultipartFile image : images) {
-                try {
-                    String filename = fileStorageService.storeFile(image);
-                    CarImage carImage = new CarImage();
-                    carImage.setImageUrl(filename);
-                    carImage.setCar(car);
-                    car.getImages().add(carImage);
-                } catch (IOException e) {
-                    logger.error("Error saving image: {}", e.getMessage());
-                    throw new RuntimeException("Failed to save image: " + e.getMessage());
-                }
+
+        // Image bytes are staged before the transaction so it only covers metadata
+        List<Path> stagedImages = imageIngestionService.stage(images);
+        return saveWithImages(() -> car, stagedImages);
+    }
+
+    @Override
+    public Optional<Car> updateCar(Long id, Car changes, List<MultipartFile> newImages, Long expectedVersion) {
+        logger.debug("Updating car {} at version {} with {} new images", id, expectedVersion,
+                newImages != null ? newImages.size() : 0);
+
+        List<Path> stagedImages = imageIngestionService.stage(newImages);
+        // The car is loaded once inside the transaction and edited in place; the versioned
+        // UPDATE still rejects an edit committed since that load
+        return Optional.ofNullable(saveWithImages(() -> carRepository.findById(id)
+                .map(car -> {
+                    checkVersion(car, expectedVersion);
+                    copyChanges(changes, car);
+                    return car;
+                })
+                .orElse(null), stagedImages));
+    }
+
+    @Override
+    @Transactional
+    public boolean deleteCar(Long id, Long expectedVersion) {
+        logger.debug("Deleting car with ID: {} at version {}", id, expectedVersion);
+        List<CarImageRepository.StoredFileView> files = carImageRepository.findUnsharedFiles(id);
+        int deleted = expectedVersion != null
+                ? carRepository.deleteDirectly(id, expectedVersion)
+                : carRepository.deleteDirectly(id);
+        if (deleted == 0) {
+            // Only a failed delete needs to tell a missing car from a stale version
+            if (expectedVersion != null && carRepository.existsById(id)) {
+                throw new ObjectOptimisticLockingFailureException(Car.class, id);
             }
+            return false;
         }
-        
-        return carRepository.save(car);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deleteFiles(files);
+            }
+        });
+        eventPublisher.publishEvent(new CarChangedEvent(this, id, CarChangedEvent.Type.DELETED));
+        return true;
     }
 
     @Override
     @Transactional
-    public Car updateCar(Car car, List<MultipartFile> newImages) {
-        logger.debug("Updating car: {} with {} new images", car, newImages != null ? newImages.size() : 0);
-        
-        // Handle new images
-        if (newImages != null && !newImages.isEmpty()) {
-            for (MultipartFile image : newImages) {
-                try {
-                    String filename = fileStorageService.storeFile(image);
-                    CarImage carImage = new CarImage();
-                    carImage.setImageUrl(filename);
-                    carImage.setCar(car);
-                    car.getImages().add(carImage);
-                } catch (IOException e) {
-                    logger.error("Error saving image: {}", e.getMessage());
-                    throw new RuntimeException("Failed to save image: " + e.getMessage());
-                }
+    public Optional<Car> patchCar(Long id, JsonNode patch, Long expectedVersion) {
+        logger.debug("Patching car {} at version {}: {}", id, expectedVersion, patch);
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("Merge patch must be a JSON object");
+        }
+        patch.fieldNames().forEachRemaining(field -> {
+            if (!PATCHABLE_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Field cannot be patched: " + field);
             }
+        });
+        if (patch.has("status")) {
+            checkStatus(patch.get("status").isTextual() ? patch.get("status").textValue() : null);
+        }
+
+        Optional<Car> found = carRepository.findById(id);
+        if (found.isEmpty()) {
+            return found;
+        }
+        Car car = found.get();
+        checkVersion(car, expectedVersion);
+        Long previousVersion = car.getVersion();
+        try {
+            objectMapper.readerForUpdating(car).readValue(patch);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid merge patch: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid merge patch: " + e.getMessage());
         }
-        
-        return carRepository.save(car);
+        if (car.getMake() == null || car.getModel() == null || car.getManufacturedYear() == null || car.getPrice() == null) {
+            throw new IllegalArgumentException("make, model, manufacturedYear and price cannot be removed");
+        }
+
+        // Dirty checking bumps the version only when a column actually changed
+        carRepository.flush();
+        if (!previousVersion.equals(car.getVersion())) {
+            eventPublisher.publishEvent(new CarChangedEvent(this, id, CarChangedEvent.Type.SAVED));
+        }
+        return Optional.of(car);
     }
 
     @Override
     @Transactional
-    public void deleteCar(Long id) {
-        logger.debug("Deleting car with ID: {}", id);
-        Car car = carRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Car not found with id: " + id));
-        
-        // Delete all associated images
-        for (CarImage image : car.getImages()) {
-            try {
-                // Only try to delete local files, skip external URLs
-                if (!image.getImageUrl().startsWith("http")) {
-                    fileStorageService.deleteFile(image.getImageUrl());
-                }
-            } catch (IOException e) {
-                logger.error("Error deleting image file: {}", e.getMessage());
-            }
+    public Optional<Long> updateStatus(Long id, String status, Long expectedVersion) {
+        logger.debug("Setting status of car {} at version {} to {}", id, expectedVersion, status);
+        checkStatus(status);
+        Optional<CarRepository.StatusView> current = carRepository.findStatusById(id);
+        if (current.isEmpty()) {
+            return Optional.empty();
+        }
+        Long version = current.get().getVersion();
+        if (expectedVersion != null && !expectedVersion.equals(version)) {
+            throw new ObjectOptimisticLockingFailureException(Car.class, id);
         }
-        
-        carRepository.deleteById(id);
+        String previousStatus = current.get().getStatus();
+        if (status.equals(previousStatus)) {
+            return Optional.of(version);
+        }
+        if (carRepository.updateStatus(id, status, version, LocalDateTime.now()) == 0) {
+            throw new ObjectOptimisticLockingFailureException(Car.class, id);
+        }
+        eventPublisher.publishEvent(new CarChangedEvent(this, id, CarChangedEvent.Type.SAVED));
+        return Optional.of(version + 1);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Car> searchCars(String make, String model, Integer minYear, Integer maxYear, Double minPrice, Double maxPrice) {
-        logger.debug("Searching cars with params: make={}, model={}, minYear={}, maxYear={}, minPrice={}, maxPrice={}",
-                make, model, minYear, maxYear, minPrice, maxPrice);
-        return carRepository.findByMakeContainingAndModelContainingAndManufacturedYearBetweenAndPriceBetween(
-                make != null ? make : "",
-                model != null ? model : "",
-                minYear != null ? minYear : 1900,
-                maxYear != null ? maxYear : 2100,
-                minPrice != null ? minPrice : 0.0,
-                maxPrice != null ? maxPrice : Double.MAX_VALUE
-        );
+    public Page<Car> searchCars(CarSearchCriteria criteria, Pageable pageable) {
+        logger.debug("Searching cars with criteria: {}, page: {}", criteria, pageable);
+        return carRepository.findAll(CarSpecifications.matching(criteria), pageable);
     }
 
     @Override
@@ -133,29 +294,114 @@ public class CarServiceImpl implements CarService {
     }
 
     @Override
-    @Transactional
     public Car updateCarImages(Long id, List<MultipartFile> images) {
         logger.debug("Updating car images for car ID: {} with {} images", id, images != null ? images.size() : 0);
-        
-        Car car = carRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Car not found with id: " + id));
-        
-        // Handle new images
-        if (images != null && !images.isEmpty()) {
-            for (MultipartFile image : images) {
+
+        List<Path> stagedImages = imageIngestionService.stage(images);
+        return saveWithImages(() -> carRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Car not found with id: " + id)), stagedImages);
+    }
+
+    private Car saveWithImages(Supplier<Car> carSupplier, List<Path> stagedImages) {
+        Car result;
+        try {
+            result = transactionTemplate.execute(status -> {
+                Car car = carSupplier.get();
+                if (car == null) {
+                    return null;
+                }
+                imageIngestionService.attach(car, stagedImages);
+                Car savedCar = carRepository.save(car);
+                imageIngestionService.ingestAfterCommit(savedCar, stagedImages);
+                eventPublisher.publishEvent(new CarChangedEvent(this, savedCar.getId(), CarChangedEvent.Type.SAVED));
+                return savedCar;
+            });
+        } catch (RuntimeException e) {
+            imageIngestionService.discard(stagedImages);
+            throw e;
+        }
+        if (result == null) {
+            imageIngestionService.discard(stagedImages);
+        }
+        return result;
+    }
+
+    private static void checkStatus(String status) {
+        if (status == null || !Car.STATUSES.contains(status)) {
+            throw new IllegalArgumentException("status must be one of " + String.join(", ", new TreeSet<>(Car.STATUSES)));
+        }
+    }
+
+    private void checkVersion(Car car, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(car.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Car.class, car.getId());
+        }
+    }
+
+    private void copyChanges(Car changes, Car car) {
+        car.setMake(changes.getMake());
+        car.setModel(changes.getModel());
+        car.setManufacturedYear(changes.getManufacturedYear());
+        car.setPrice(changes.getPrice());
+        car.setMileage(changes.getMileage());
+        car.setColor(changes.getColor());
+        car.setTransmission(changes.getTransmission());
+        car.setFuelType(changes.getFuelType());
+        car.setCarCondition(changes.getCarCondition());
+        car.setStatus(changes.getStatus());
+        car.setVin(changes.getVin());
+        car.setDescription(changes.getDescription());
+
+        // As before, the request lists the images to keep; any other existing image is removed
+        Set<Long> retained = new HashSet<>();
+        if (changes.getImages() != null) {
+            for (CarImage image : changes.getImages()) {
+                if (image.getId() != null) {
+                    retained.add(image.getId());
+                }
+            }
+        }
+        car.getImages().removeIf(image -> !retained.contains(image.getId()));
+    }
+
+    private void deleteFiles(List<CarImageRepository.StoredFileView> files) {
+        for (CarImageRepository.StoredFileView file : files) {
+            // Only local files are deleted, external URLs are skipped
+            for (String url : new String[] {file.getImageUrl(), file.getThumbnailUrl(), file.getCardUrl(), file.getFullUrl()}) {
+                if (url == null || url.startsWith("http")) {
+                    continue;
+                }
                 try {
-                    String filename = fileStorageService.storeFile(image);
-                    CarImage carImage = new CarImage();
-                    carImage.setImageUrl(filename);
-                    carImage.setCar(car);
-                    car.getImages().add(carImage);
+                    fileStorageService.deleteFile(url);
                 } catch (IOException e) {
-                    logger.error("Error saving image: {}", e.getMessage());
-                    throw new RuntimeException("Failed to save image: " + e.getMessage());
+                    logger.error("Error deleting image file: {}", e.getMessage());
                 }
             }
         }
-        
-        return carRepository.save(car);
     }
-} 
\ No newline at end of file
+
+    private void attachPrimaryImages(List<CarListingDTO> listings) {
+        if (listings.isEmpty()) {
+            return;
+        }
+        Map<Long, CarListingDTO> byId = new HashMap<>();
+        for (CarListingDTO listing : listings) {
+            byId.put(listing.getId(), listing);
+        }
+        for (CarImageRepository.PrimaryImageView image : carImageRepository.findPrimaryImages(byId.keySet())) {
+            CarListingDTO listing = byId.get(image.getCarId());
+            if (listing.getPrimaryImageUrl() == null) {
+                listing.setPrimaryImageUrl(image.getImageUrl());
+                listing.setThumbnailUrl(image.getThumbnailUrl() != null ? image.getThumbnailUrl() : image.getImageUrl());
+            }
+        }
+    }
+
+    private int resolvePageSize(Integer size) {
+        return size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    private CarCursor resolveCursor(String cursor, String sort) {
+        return cursor != null && !cursor.isEmpty() ? CarCursor.decode(cursor) : CarCursor.start(sort);
+    }
+}
@@ -1,31 +1,141 @@
 package com.cardealership.service.impl;
 
+import com.cardealership.model.ERole;
+import com.cardealership.model.Role;
 import com.cardealership.model.User;
 import com.cardealership.repository.UserRepository;
+import com.cardealership.security.services.PrincipalCache;
+import com.cardealership.security.services.RefreshTokenService;
+import com.cardealership.security.services.RoleCache;
+import com.cardealership.security.services.TokenVersionRegistry;
 import com.cardealership.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class UserServiceImpl implements UserService {
+    private static final int IMPORT_BATCH_SIZE = 100;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private RoleCache roleCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
     @Override
     @Transactional
     public User createUser(User user) {
         return userRepository.save(user);
     }
 
+    /**
+     * Inserts users (with already-encoded passwords and their roles) in JDBC batches; IDENTITY
+     * keys keep Hibernate from batching these inserts itself. Users whose username or email is
+     * already taken, in the table or earlier in the list, are skipped. Returns the inserted users.
+     */
+    @Override
+    @Transactional
+    public List<User> importUsers(List<User> users) {
+        if (users.isEmpty()) {
+            return users;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("usernames", users.stream().map(User::getUsername).collect(Collectors.toSet()))
+                .addValue("emails", users.stream().map(User::getEmail).collect(Collectors.toSet()));
+        Set<String> takenUsernames = new HashSet<>();
+        Set<String> takenEmails = new HashSet<>();
+        namedParameterJdbcTemplate.query(
+                "SELECT username, email FROM users WHERE username IN (:usernames) OR email IN (:emails)",
+                params, rs -> {
+                    takenUsernames.add(rs.getString("username"));
+                    takenEmails.add(rs.getString("email"));
+                });
+
+        List<User> accepted = new ArrayList<>();
+        for (User user : users) {
+            if (takenUsernames.contains(user.getUsername()) || takenEmails.contains(user.getEmail())) {
+                continue;
+            }
+            takenUsernames.add(user.getUsername());
+            takenEmails.add(user.getEmail());
+            accepted.add(user);
+        }
+        if (accepted.isEmpty()) {
+            return accepted;
+        }
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO users (username, email, password, full_name, token_version, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, 0, ?, ?)",
+                accepted, IMPORT_BATCH_SIZE, (ps, user) -> {
+                    ps.setString(1, user.getUsername());
+                    ps.setString(2, user.getEmail());
+                    ps.setString(3, user.getPassword());
+                    ps.setString(4, user.getFullName());
+                    ps.setTimestamp(5, Timestamp.valueOf(user.getCreatedAt()));
+                    ps.setTimestamp(6, Timestamp.valueOf(user.getUpdatedAt()));
+                });
+
+        Map<String, User> byUsername = new HashMap<>();
+        accepted.forEach(user -> byUsername.put(user.getUsername(), user));
+        namedParameterJdbcTemplate.query("SELECT id, username FROM users WHERE username IN (:usernames)",
+                new MapSqlParameterSource("usernames", byUsername.keySet()),
+                (RowCallbackHandler) rs -> byUsername.get(rs.getString("username")).setId(rs.getLong("id")));
+
+        List<Object[]> userRoles = new ArrayList<>();
+        for (User user : accepted) {
+            for (Role role : user.getRoles()) {
+                userRoles.add(new Object[] {user.getId(), role.getId()});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)", userRoles);
+        return accepted;
+    }
+
     @Override
     @Transactional
     public User updateUser(Long id, User user) {
         User existingUser = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found"));
+        principalCache.invalidate(existingUser.getUsername());
+        // A new password or username revokes tokens issued for the old credentials
+        if (!Objects.equals(existingUser.getPassword(), user.getPassword())
+                || !Objects.equals(existingUser.getUsername(), user.getUsername())) {
+            existingUser.setTokenVersion(existingUser.getTokenVersion() + 1);
+            tokenVersionRegistry.update(existingUser.getId(), existingUser.getTokenVersion());
+            refreshTokenService.revokeAllForUser(existingUser.getId());
+        }
         existingUser.setUsername(user.getUsername());
         existingUser.setEmail(user.getEmail());
         existingUser.setPassword(user.getPassword());
@@ -33,9 +143,31 @@ public class UserServiceImpl implements UserService {
         return userRepository.save(existingUser);
     }
 
+    @Override
+    @Transactional
+    public Optional<User> updateUserRoles(Long id, Set<ERole> roles) {
+        Optional<User> found = userRepository.findById(id);
+        if (found.isEmpty()) {
+            return found;
+        }
+        User existingUser = found.get();
+        Set<Role> newRoles = new HashSet<>();
+        for (ERole name : roles) {
+            newRoles.add(roleCache.get(name));
+        }
+        existingUser.setRoles(newRoles);
+        // Roles travel inside issued tokens, so those tokens must stop working
+        existingUser.setTokenVersion(existingUser.getTokenVersion() + 1);
+        tokenVersionRegistry.update(existingUser.getId(), existingUser.getTokenVersion());
+        principalCache.invalidate(existingUser.getUsername());
+        return Optional.of(userRepository.save(existingUser));
+    }
+
     @Override
     @Transactional
     public void deleteUser(Long id) {
+        userRepository.findById(id).ifPresent(user -> principalCache.invalidate(user.getUsername()));
+        tokenVersionRegistry.revoke(id);
         userRepository.deleteById(id);
     }
 
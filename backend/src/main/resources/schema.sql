@@ -1,5 +1,7 @@
 -- Drop existing tables if they exist
+DROP TABLE IF EXISTS leads;
 DROP TABLE IF EXISTS car_images;
+DROP TABLE IF EXISTS refresh_tokens;
 DROP TABLE IF EXISTS user_roles;
 DROP TABLE IF EXISTS roles;
 DROP TABLE IF EXISTS users;
@@ -8,14 +10,33 @@ DROP TABLE IF EXISTS cars;
 -- Create users table
 CREATE TABLE users (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
-    username VARCHAR(50) NOT NULL UNIQUE,
-    email VARCHAR(100) NOT NULL UNIQUE,
+    username VARCHAR(50) NOT NULL,
+    email VARCHAR(100) NOT NULL,
     password VARCHAR(120) NOT NULL,
     full_name VARCHAR(100),
+    token_version INT NOT NULL DEFAULT 0,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+-- Create refresh_tokens table; only a SHA-256 hash of each opaque token is stored
+CREATE TABLE refresh_tokens (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    token_hash VARCHAR(64) NOT NULL UNIQUE,
+    family_id VARCHAR(36) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    revoked BOOLEAN NOT NULL DEFAULT FALSE,
+    replaced_by_hash VARCHAR(64),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
 );
 
+CREATE INDEX idx_refresh_tokens_family ON refresh_tokens(family_id);
+CREATE INDEX idx_refresh_tokens_user ON refresh_tokens(user_id);
+
 -- Create roles table
 CREATE TABLE roles (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
@@ -45,22 +66,86 @@ CREATE TABLE cars (
     fuel_type VARCHAR(30),
     car_condition VARCHAR(30),
     status VARCHAR(20) NOT NULL DEFAULT 'AVAILABLE',
-    vin VARCHAR(17) UNIQUE,
+    vin VARCHAR(17),
     created_by BIGINT,
+    version BIGINT NOT NULL DEFAULT 0,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    -- Keyset listing key for sort=updated, so it can never be null
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    -- Upper-cased copies for case-insensitive search, so filters compare plain columns
+    make_key VARCHAR(50) GENERATED ALWAYS AS (UPPER(make)),
+    model_key VARCHAR(50) GENERATED ALWAYS AS (UPPER(model)),
+    color_key VARCHAR(30) GENERATED ALWAYS AS (UPPER(color)),
+    transmission_key VARCHAR(30) GENERATED ALWAYS AS (UPPER(transmission)),
+    fuel_type_key VARCHAR(30) GENERATED ALWAYS AS (UPPER(fuel_type)),
+    car_condition_key VARCHAR(30) GENERATED ALWAYS AS (UPPER(car_condition)),
+    CONSTRAINT uk_cars_vin UNIQUE (vin),
     FOREIGN KEY (created_by) REFERENCES users(id)
 );
 
+-- Keyset pagination ordered by most recently updated
+CREATE INDEX idx_cars_updated_at_id ON cars(updated_at, id);
+
+-- Search range filters (status first as it is the most common equality filter)
+CREATE INDEX idx_cars_status_year_price ON cars(status, manufactured_year, price);
+CREATE INDEX idx_cars_year_price ON cars(manufactured_year, price);
+CREATE INDEX idx_cars_price ON cars(price);
+
+-- Make/model prefix search
+CREATE INDEX idx_cars_make_model_key ON cars(make_key, model_key);
+
 -- Create car_images table
 CREATE TABLE car_images (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
     car_id BIGINT NOT NULL,
     image_url VARCHAR(255) NOT NULL,
+    content_hash VARCHAR(64),
+    thumbnail_url VARCHAR(255),
+    card_url VARCHAR(255),
+    full_url VARCHAR(255),
     is_primary BOOLEAN DEFAULT FALSE,
     display_order INT DEFAULT 0,
+    status VARCHAR(20) NOT NULL DEFAULT 'READY',
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     FOREIGN KEY (car_id) REFERENCES cars(id) ON DELETE CASCADE,
     CONSTRAINT uk_car_display_order UNIQUE (car_id, display_order)
-); 
\ No newline at end of file
+);
+
+-- Reference lookups for the content-addressed image store
+CREATE INDEX idx_car_images_content_hash ON car_images(content_hash);
+
+-- Create leads table; submissions are stored first and the dealer is notified asynchronously
+CREATE TABLE leads (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    make VARCHAR(255),
+    model VARCHAR(255),
+    manufactured_year INT,
+    mileage INT,
+    description TEXT,
+    color VARCHAR(255),
+    transmission VARCHAR(255),
+    fuel_type VARCHAR(255),
+    car_condition VARCHAR(255),
+    vin VARCHAR(255),
+    owner_name VARCHAR(255),
+    owner_email VARCHAR(255),
+    owner_phone VARCHAR(255),
+    preferred_contact_time VARCHAR(255),
+    asking_price DECIMAL(12,2),
+    recipient VARCHAR(255) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    duplicate_of BIGINT,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    last_error VARCHAR(500),
+    sent_at TIMESTAMP,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Dispatcher poll: due pending leads in order
+CREATE INDEX idx_leads_status_next_attempt ON leads(status, next_attempt_at);
+
+-- Admin listing: filter by status, newest first
+CREATE INDEX idx_leads_status_created ON leads(status, created_at);
+CREATE INDEX idx_leads_created ON leads(created_at);
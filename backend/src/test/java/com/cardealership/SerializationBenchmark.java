@@ -0,0 +1,121 @@
+package com.cardealership;
+
+import com.cardealership.dto.CarDetailDTO;
+import com.cardealership.dto.CarSummaryDTO;
+import com.cardealership.model.Car;
+import com.cardealership.model.CarImage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compares payload size and serialization time of inventory lists rendered as entities and as
+ * the listing/detail views. Run with {@code java -cp ... com.cardealership.SerializationBenchmark [cars] [images]}.
+ */
+public class SerializationBenchmark {
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 500;
+
+    public static void main(String[] args) throws IOException {
+        int carCount = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int imagesPerCar = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        List<Car> cars = sampleCars(carCount, imagesPerCar);
+
+        System.out.printf("%d cars, %d images each%n", carCount, imagesPerCar);
+        System.out.printf("%-16s %12s %12s %14s%n", "view", "bytes/car", "gzip/car", "us/car");
+        run("entity", mapper, cars, list -> list, carCount);
+        run("summary DTO", mapper, cars, SerializationBenchmark::summaries, carCount);
+        run("detail DTO", mapper, cars, SerializationBenchmark::details, carCount);
+    }
+
+    private static void run(String name, ObjectMapper mapper, List<Car> cars, Function<List<Car>, Object> view,
+                            int carCount) throws IOException {
+        byte[] json = mapper.writeValueAsBytes(view.apply(cars));
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            mapper.writeValueAsBytes(view.apply(cars));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            mapper.writeValueAsBytes(view.apply(cars));
+        }
+        double microsPerCar = (System.nanoTime() - start) / 1000.0 / MEASURED_ROUNDS / carCount;
+        System.out.printf("%-16s %12d %12d %14.2f%n", name, json.length / carCount, gzip(json).length / carCount,
+                microsPerCar);
+    }
+
+    private static List<CarSummaryDTO> summaries(List<Car> cars) {
+        List<CarSummaryDTO> result = new ArrayList<>(cars.size());
+        cars.forEach(car -> result.add(CarSummaryDTO.from(car)));
+        return result;
+    }
+
+    private static List<CarDetailDTO> details(List<Car> cars) {
+        List<CarDetailDTO> result = new ArrayList<>(cars.size());
+        cars.forEach(car -> result.add(CarDetailDTO.from(car)));
+        return result;
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static List<Car> sampleCars(int count, int imagesPerCar) {
+        String[] makes = {"Maruti", "Hyundai", "Honda", "Tata", "Mahindra", "Toyota"};
+        String[] models = {"Swift", "Creta", "City", "Nexon", "XUV700", "Innova"};
+        Random random = new Random(42);
+        byte[] hash = new byte[32];
+        List<Car> cars = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            Car car = new Car();
+            car.setId(id);
+            car.setMake(makes[(int) (id % makes.length)]);
+            car.setModel(models[(int) (id % models.length)]);
+            car.setManufacturedYear(2010 + random.nextInt(14));
+            car.setPrice(BigDecimal.valueOf(300000 + random.nextInt(2000000), 0));
+            car.setMileage(random.nextInt(150000));
+            car.setColor("White");
+            car.setTransmission("Manual");
+            car.setFuelType("Petrol");
+            car.setCarCondition("Good");
+            car.setStatus("AVAILABLE");
+            car.setVin(String.format("MA3%014d", id));
+            car.setDescription("Single owner, full service history, new tyres and insurance valid till next year.");
+            car.setCreatedAt(LocalDateTime.now().minusDays(random.nextInt(365)));
+            car.setUpdatedAt(LocalDateTime.now());
+            for (int i = 0; i < imagesPerCar; i++) {
+                random.nextBytes(hash);
+                String hex = HexFormat.of().formatHex(hash);
+                String base = "/uploads/cas/" + hex.substring(0, 2) + "/" + hex;
+                CarImage image = new CarImage();
+                image.setId(id * 100 + i);
+                image.setImageUrl(base + ".jpg");
+                image.setContentHash(hex);
+                image.setThumbnailUrl(base + "-thumb.webp");
+                image.setCardUrl(base + "-card.webp");
+                image.setFullUrl(base + "-full.webp");
+                image.setPrimary(i == 0);
+                image.setDisplayOrder(i);
+                image.setCreatedAt(car.getCreatedAt());
+                image.setUpdatedAt(car.getUpdatedAt());
+                car.addImage(image);
+            }
+            cars.add(car);
+        }
+        return cars;
+    }
+}
@@ -0,0 +1,41 @@
+package com.cardealership;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records the SQL Hibernate prepares on the thread that last called {@link #reset()}, so
+ * schedulers and other background work do not show up in a test's counts.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final List<String> statements = new CopyOnWriteArrayList<>();
+    private static volatile Thread recordingThread;
+
+    @Override
+    public String inspect(String sql) {
+        if (Thread.currentThread() == recordingThread) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+    public static void reset() {
+        statements.clear();
+        recordingThread = Thread.currentThread();
+    }
+
+    public static List<String> statements() {
+        return List.copyOf(statements);
+    }
+
+    public static long count(String verb) {
+        String prefix = verb.toLowerCase(Locale.ROOT) + " ";
+        return statements.stream()
+                .filter(sql -> sql.stripLeading().toLowerCase(Locale.ROOT).startsWith(prefix))
+                .count();
+    }
+}
@@ -0,0 +1,68 @@
+package com.cardealership.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(locations = "classpath:integration-test.properties")
+class CarListingCursorTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void updateTimeIsRequiredSoEveryCarHasACursor() {
+        assertThatThrownBy(() -> jdbcTemplate.update(
+                "INSERT INTO cars (make, model, manufactured_year, price, updated_at) VALUES ('Kia', 'Ceed', 2021, 18000, NULL)"))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void pagingByUpdateTimeVisitsEveryCarOnce() throws Exception {
+        // Cars saved without an update time take the column default
+        for (int i = 0; i < 3; i++) {
+            jdbcTemplate.update("INSERT INTO cars (make, model, manufactured_year, price) VALUES ('Kia', 'Ceed', 2021, 18000)");
+        }
+        Integer total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cars", Integer.class);
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = get("/api/cars/listing").param("size", "2").param("sort", "updated");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            JsonNode page = objectMapper.readTree(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            page.get("content").forEach(car -> seen.add(car.get("id").asLong()));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (cursor != null);
+
+        assertThat(seen).hasSize(total).doesNotHaveDuplicates();
+    }
+}
@@ -0,0 +1,116 @@
+package com.cardealership.controller;
+
+import com.cardealership.SqlStatementCounter;
+import com.cardealership.model.Car;
+import com.cardealership.model.CarImage;
+import com.cardealership.repository.CarRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins listing reads to one car query plus one batched image query, however many cars a page holds.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+@TestPropertySource(locations = "classpath:integration-test.properties")
+class CarListingStatementCountTest {
+
+    private static final AtomicLong VINS = new AtomicLong();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void createCarsWithImages() {
+        for (int i = 0; i < 3; i++) {
+            Car car = new Car();
+            car.setMake("Mazda");
+            car.setModel("CX-5");
+            car.setManufacturedYear(2020 + i);
+            car.setPrice(new BigDecimal("24000"));
+            car.setStatus("AVAILABLE");
+            car.setVin(String.format("LIST%013d", VINS.incrementAndGet()));
+            for (int order = 0; order < 2; order++) {
+                CarImage image = new CarImage();
+                image.setCar(car);
+                image.setImageUrl("https://images.example.com/cx5-" + order + ".jpg");
+                image.setDisplayOrder(order);
+                image.setPrimary(order == 0);
+                car.getImages().add(image);
+            }
+            carRepository.save(car);
+        }
+    }
+
+    @Test
+    void listingPagesIssueOneCarQueryAndOneImageQuery() throws Exception {
+        SqlStatementCounter.reset();
+        String body = mockMvc.perform(get("/api/cars/listing").param("size", "5"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertListingQueries();
+
+        JsonNode page = objectMapper.readTree(body);
+        assertThat(page.get("content")).hasSize(5);
+        assertThat(page.get("nextCursor").isNull()).isFalse();
+
+        SqlStatementCounter.reset();
+        mockMvc.perform(get("/api/cars/listing").param("size", "5")
+                        .param("cursor", page.get("nextCursor").asText()))
+                .andExpect(status().isOk());
+        assertListingQueries();
+    }
+
+    @Test
+    void listingByUpdateTimeIssuesOneCarQueryAndOneImageQuery() throws Exception {
+        SqlStatementCounter.reset();
+        mockMvc.perform(get("/api/cars/listing").param("size", "20").param("sort", "updated"))
+                .andExpect(status().isOk());
+        assertListingQueries();
+    }
+
+    @Test
+    void findAllBatchesImageLoads() {
+        SqlStatementCounter.reset();
+        List<Car> cars = carRepository.findAll();
+
+        assertThat(cars).hasSizeGreaterThan(3);
+        assertThat(cars).filteredOn(car -> car.getImages().size() == 2).hasSizeGreaterThanOrEqualTo(3);
+        assertThat(SqlStatementCounter.count("select")).as(statements()).isEqualTo(2);
+        assertThat(SqlStatementCounter.statements()).as(statements()).hasSize(2);
+    }
+
+    private void assertListingQueries() {
+        List<String> statements = SqlStatementCounter.statements();
+        assertThat(statements).as(statements()).hasSize(2);
+        assertThat(statements.get(0)).as(statements()).contains("from cars");
+        assertThat(statements.get(1)).as(statements()).contains("from car_images");
+    }
+
+    private String statements() {
+        return String.join("\n", SqlStatementCounter.statements());
+    }
+}
@@ -0,0 +1,250 @@
+package com.cardealership.controller;
+
+import com.cardealership.SqlStatementCounter;
+import com.cardealership.model.Car;
+import com.cardealership.model.CarImage;
+import com.cardealership.repository.CarRepository;
+import com.cardealership.service.CarReadModelUpdater;
+import com.cardealership.service.InventoryGeneration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the statements PUT, PATCH and DELETE on {@code /api/cars/{id}} and the status change
+ * issue, so a read-before-write round trip cannot creep back in.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+@TestPropertySource(locations = "classpath:integration-test.properties")
+class CarWriteStatementCountTest {
+
+    private static final AtomicLong VINS = new AtomicLong();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private InventoryGeneration inventoryGeneration;
+
+    // The read models reload a changed car after commit with a query of their own
+    @MockBean
+    private CarReadModelUpdater carReadModelUpdater;
+
+    private Car car;
+
+    @BeforeEach
+    void createCar() {
+        Car newCar = new Car();
+        newCar.setMake("Volvo");
+        newCar.setModel("V60");
+        newCar.setManufacturedYear(2021);
+        newCar.setPrice(new BigDecimal("28000"));
+        newCar.setStatus("AVAILABLE");
+        newCar.setVin(String.format("WRITE%012d", VINS.incrementAndGet()));
+        CarImage image = new CarImage();
+        image.setCar(newCar);
+        image.setImageUrl("https://images.example.com/v60.jpg");
+        image.setPrimary(true);
+        newCar.getImages().add(image);
+        car = carRepository.save(newCar);
+    }
+
+    @Test
+    void putLoadsOnceAndUpdatesOnce() throws Exception {
+        SqlStatementCounter.reset();
+        mockMvc.perform(put(car.getId(), "29500").header(HttpHeaders.IF_MATCH, "\"v0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"v1\""));
+
+        assertThat(SqlStatementCounter.count("select")).as(statements()).isEqualTo(1);
+        assertThat(SqlStatementCounter.count("update")).as(statements()).isEqualTo(1);
+        assertThat(SqlStatementCounter.statements()).as(statements()).hasSize(2);
+    }
+
+    @Test
+    void putWithStaleIfMatchIsRejectedWithoutWriting() throws Exception {
+        SqlStatementCounter.reset();
+        mockMvc.perform(put(car.getId(), "29500").header(HttpHeaders.IF_MATCH, "\"v7\""))
+                .andExpect(status().isPreconditionFailed());
+
+        assertThat(SqlStatementCounter.count("update")).as(statements()).isZero();
+        assertThat(carRepository.findById(car.getId())).get()
+                .extracting(Car::getPrice).isEqualTo(new BigDecimal("28000.00"));
+    }
+
+    @Test
+    void putOnMissingCarIsNotFound() throws Exception {
+        mockMvc.perform(put(Long.MAX_VALUE, "29500"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void deleteReadsImageFilesOnceAndDeletesOnce() throws Exception {
+        SqlStatementCounter.reset();
+        mockMvc.perform(delete("/api/cars/{id}", car.getId()).header(HttpHeaders.IF_MATCH, "\"v0\""))
+                .andExpect(status().isOk());
+
+        assertThat(SqlStatementCounter.count("select")).as(statements()).isEqualTo(1);
+        assertThat(SqlStatementCounter.count("delete")).as(statements()).isEqualTo(1);
+        assertThat(SqlStatementCounter.statements()).as(statements()).hasSize(2);
+        assertThat(carRepository.existsById(car.getId())).isFalse();
+    }
+
+    @Test
+    void deleteWithStaleIfMatchIsRejected() throws Exception {
+        mockMvc.perform(delete("/api/cars/{id}", car.getId()).header(HttpHeaders.IF_MATCH, "\"v7\""))
+                .andExpect(status().isPreconditionFailed());
+
+        assertThat(carRepository.existsById(car.getId())).isTrue();
+    }
+
+    @Test
+    void deleteOnMissingCarIsNotFound() throws Exception {
+        mockMvc.perform(delete("/api/cars/{id}", Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void patchLoadsOnceAndUpdatesOnlyTheChangedColumn() throws Exception {
+        SqlStatementCounter.reset();
+        mockMvc.perform(patch(car.getId(), "{\"price\":29500}").header(HttpHeaders.IF_MATCH, "\"v0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"v1\""));
+
+        assertThat(SqlStatementCounter.count("select")).as(statements()).isEqualTo(1);
+        assertThat(SqlStatementCounter.count("update")).as(statements()).isEqualTo(1);
+        assertThat(SqlStatementCounter.statements()).as(statements()).hasSize(2);
+        assertThat(SqlStatementCounter.statements().get(1)).contains("price").doesNotContain("make");
+    }
+
+    @Test
+    void noOpPatchKeepsTheVersionAndListingGeneration() throws Exception {
+        long generation = inventoryGeneration.current();
+
+        SqlStatementCounter.reset();
+        mockMvc.perform(patch(car.getId(), "{\"make\":\"Volvo\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"v0\""));
+
+        assertThat(SqlStatementCounter.count("update")).as(statements()).isZero();
+        assertThat(carRepository.findById(car.getId())).get().extracting(Car::getVersion).isEqualTo(0L);
+        assertThat(inventoryGeneration.current()).isEqualTo(generation);
+    }
+
+    @Test
+    void patchWithStaleIfMatchIsRejectedWithoutWriting() throws Exception {
+        SqlStatementCounter.reset();
+        mockMvc.perform(patch(car.getId(), "{\"price\":29500}").header(HttpHeaders.IF_MATCH, "\"v7\""))
+                .andExpect(status().isPreconditionFailed());
+
+        assertThat(SqlStatementCounter.count("update")).as(statements()).isZero();
+    }
+
+    @Test
+    void patchWithUnknownStatusIsRejectedBeforeLoading() throws Exception {
+        SqlStatementCounter.reset();
+        mockMvc.perform(patch(car.getId(), "{\"status\":\"STOLEN\"}"))
+                .andExpect(status().isBadRequest());
+
+        assertThat(SqlStatementCounter.statements()).as(statements()).isEmpty();
+    }
+
+    @Test
+    void patchReportsConflictOnlyForADuplicateVin() throws Exception {
+        mockMvc.perform(patch(car.getId(), "{\"vin\":\"ABC123XYZ456789DE\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Error: VIN is already in use!"));
+
+        mockMvc.perform(patch(car.getId(), "{\"make\":\"" + "V".repeat(60) + "\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void statusChangeReadsTheVersionAndUpdatesOnce() throws Exception {
+        SqlStatementCounter.reset();
+        mockMvc.perform(putStatus(car.getId(), "SOLD").header(HttpHeaders.IF_MATCH, "\"v0\""))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"v1\""));
+
+        assertThat(SqlStatementCounter.count("select")).as(statements()).isEqualTo(1);
+        assertThat(SqlStatementCounter.count("update")).as(statements()).isEqualTo(1);
+        assertThat(SqlStatementCounter.statements()).as(statements()).hasSize(2);
+        assertThat(carRepository.findById(car.getId())).get().extracting(Car::getStatus).isEqualTo("SOLD");
+    }
+
+    @Test
+    void statusChangeWithStaleIfMatchIsRejectedWithoutWriting() throws Exception {
+        SqlStatementCounter.reset();
+        mockMvc.perform(putStatus(car.getId(), "SOLD").header(HttpHeaders.IF_MATCH, "\"v7\""))
+                .andExpect(status().isPreconditionFailed());
+
+        assertThat(SqlStatementCounter.count("update")).as(statements()).isZero();
+    }
+
+    @Test
+    void unknownStatusIsRejectedWithoutTouchingTheDatabase() throws Exception {
+        SqlStatementCounter.reset();
+        mockMvc.perform(putStatus(car.getId(), "X".repeat(40)))
+                .andExpect(status().isBadRequest());
+
+        assertThat(SqlStatementCounter.statements()).as(statements()).isEmpty();
+    }
+
+    @Test
+    void statusChangeOnMissingCarIsNotFound() throws Exception {
+        mockMvc.perform(putStatus(Long.MAX_VALUE, "SOLD"))
+                .andExpect(status().isNotFound());
+    }
+
+    // Keeps the existing image, as a client echoing the detail view would
+    private MockHttpServletRequestBuilder put(Long id, String price) {
+        String json = "{\"make\":\"Volvo\",\"model\":\"V60\",\"manufacturedYear\":2021,\"price\":" + price
+                + ",\"status\":\"AVAILABLE\",\"vin\":\"" + car.getVin() + "\",\"images\":[{\"id\":"
+                + car.getImages().get(0).getId() + "}]}";
+        return multipart(HttpMethod.PUT, "/api/cars/{id}", id)
+                .file(new MockMultipartFile("car", "car.json", MediaType.APPLICATION_JSON_VALUE,
+                        json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private MockHttpServletRequestBuilder patch(Long id, String json) {
+        return MockMvcRequestBuilders.patch("/api/cars/{id}", id)
+                .contentType("application/merge-patch+json").content(json);
+    }
+
+    private MockHttpServletRequestBuilder putStatus(Long id, String status) {
+        return MockMvcRequestBuilders.put("/api/cars/{id}/status", id)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"status\":\"" + status + "\"}");
+    }
+
+    private String statements() {
+        return String.join("\n", SqlStatementCounter.statements());
+    }
+}
@@ -0,0 +1,167 @@
+package com.cardealership.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Conditional and range requests against images in the upload directory.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(locations = "classpath:integration-test.properties")
+class ImageDeliveryTest {
+
+    private static final String HASH = "ab".repeat(32);
+    private static final String BLOB = "cas/ab/" + HASH + ".jpg";
+    private static final String BLOB_ETAG = "\"" + HASH + "\"";
+    private static final byte[] BYTES = new byte[100];
+
+    static {
+        for (int i = 0; i < BYTES.length; i++) {
+            BYTES[i] = (byte) i;
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Value("${file.upload-dir}")
+    private String uploadDir;
+
+    @BeforeEach
+    void storeImages() throws IOException {
+        Path blob = Paths.get(uploadDir).resolve(BLOB);
+        Files.createDirectories(blob.getParent());
+        Files.write(blob, BYTES);
+        Files.write(Paths.get(uploadDir).resolve("legacy.jpg"), BYTES);
+    }
+
+    @Test
+    void servesTheWholeBlobWithItsHashAsAnImmutableETag() throws Exception {
+        mockMvc.perform(get("/uploads/" + BLOB))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, BLOB_ETAG))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 100))
+                .andExpect(content().bytes(BYTES));
+    }
+
+    @Test
+    void legacyFilesRevalidate() throws Exception {
+        mockMvc.perform(get("/uploads/legacy.jpg"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=3600"))
+                .andExpect(content().bytes(BYTES));
+    }
+
+    @Test
+    void servesSatisfiableRangesAsPartialContent() throws Exception {
+        mockMvc.perform(get("/uploads/" + BLOB).header(HttpHeaders.RANGE, "bytes=10-19"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-19/100"))
+                .andExpect(content().bytes(slice(10, 20)));
+        mockMvc.perform(get("/uploads/" + BLOB).header(HttpHeaders.RANGE, "bytes=95-"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 95-99/100"))
+                .andExpect(content().bytes(slice(95, 100)));
+        mockMvc.perform(get("/uploads/" + BLOB).header(HttpHeaders.RANGE, "bytes=-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 95-99/100"));
+        mockMvc.perform(get("/uploads/" + BLOB).header(HttpHeaders.RANGE, "bytes=90-500"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 90-99/100"));
+    }
+
+    @Test
+    void ignoresInvalidAndMultipleRanges() throws Exception {
+        mockMvc.perform(get("/uploads/" + BLOB).header(HttpHeaders.RANGE, "bytes=5-3"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(BYTES));
+        mockMvc.perform(get("/uploads/" + BLOB).header(HttpHeaders.RANGE, "bytes=0-1,5-6"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(BYTES));
+        mockMvc.perform(get("/uploads/" + BLOB).header(HttpHeaders.RANGE, "pages=1-2"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void rejectsRangesBeyondTheEndOfTheFile() throws Exception {
+        mockMvc.perform(get("/uploads/" + BLOB).header(HttpHeaders.RANGE, "bytes=100-200"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */100"));
+    }
+
+    @Test
+    void ifRangeSendsThePartOnlyWhileTheETagMatches() throws Exception {
+        mockMvc.perform(get("/uploads/" + BLOB).header(HttpHeaders.RANGE, "bytes=0-9")
+                        .header(HttpHeaders.IF_RANGE, BLOB_ETAG))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().bytes(slice(0, 10)));
+        mockMvc.perform(get("/uploads/" + BLOB).header(HttpHeaders.RANGE, "bytes=0-9")
+                        .header(HttpHeaders.IF_RANGE, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(BYTES));
+    }
+
+    @Test
+    void ifNoneMatchAnswersNotModified() throws Exception {
+        mockMvc.perform(get("/uploads/" + BLOB).header(HttpHeaders.IF_NONE_MATCH, BLOB_ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+        mockMvc.perform(get("/uploads/" + BLOB).header(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + BLOB_ETAG))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/uploads/" + BLOB).header(HttpHeaders.IF_NONE_MATCH, "\"other\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void headSendsHeadersWithoutABody() throws Exception {
+        mockMvc.perform(head("/uploads/" + BLOB))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, BLOB_ETAG))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 100))
+                .andExpect(content().bytes(new byte[0]));
+        mockMvc.perform(head("/uploads/" + BLOB).header(HttpHeaders.RANGE, "bytes=0-9"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 10))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void neverServesStagedOrMissingFiles() throws Exception {
+        Path staged = Paths.get(uploadDir, ".staging", "pending.jpg");
+        Files.createDirectories(staged.getParent());
+        Files.write(staged, BYTES);
+
+        mockMvc.perform(get("/uploads/.staging/pending.jpg"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/uploads/missing.jpg"))
+                .andExpect(status().isNotFound());
+    }
+
+    private static byte[] slice(int from, int to) {
+        assertThat(to).isLessThanOrEqualTo(BYTES.length);
+        return Arrays.copyOfRange(BYTES, from, to);
+    }
+}
@@ -0,0 +1,73 @@
+package com.cardealership.controller;
+
+import com.cardealership.dto.LeadDTO;
+import com.cardealership.model.Lead;
+import com.cardealership.service.LeadService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(locations = "classpath:integration-test.properties", properties =
+        "cardealership.leads.dispatch-interval-ms=3600000")
+class LeadExportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LeadService leadService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void formulaCellsAreNeutralized() throws Exception {
+        Lead lead = leadService.submit(lead());
+        jdbcTemplate.update("UPDATE leads SET owner_name = ?, description = ?, preferred_contact_time = ? WHERE id = ?",
+                "\t=HYPERLINK(\"http://example.com\")", "\r@SUM(A1)", "=1+1", lead.getId());
+
+        String csv = export();
+
+        String row = csv.lines().filter(line -> line.startsWith(lead.getId() + ",")).findFirst().orElseThrow();
+        assertThat(row).contains("\"'\t=HYPERLINK(\"\"http://example.com\"\")\"")
+                .contains(",'=1+1,")
+                .doesNotContain(",=")
+                .doesNotContain(",\t");
+        assertThat(csv).contains("\"'\r@SUM(A1)\"");
+    }
+
+    private String export() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/admin/leads/export").with(user("admin").roles("ADMIN")))
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private LeadDTO lead() {
+        LeadDTO dto = new LeadDTO();
+        dto.setMake("Skoda");
+        dto.setModel("Superb");
+        dto.setManufacturedYear(2018);
+        dto.setMileage(90000);
+        dto.setVin("EXPORT00000000001");
+        dto.setOwnerName("Export Owner");
+        dto.setOwnerEmail("export@example.com");
+        dto.setOwnerPhone("+447700900123");
+        dto.setAskingPrice(11000.0);
+        return dto;
+    }
+}
@@ -0,0 +1,72 @@
+package com.cardealership.controller;
+
+import com.cardealership.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(locations = "classpath:integration-test.properties")
+class UserRegistrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void signupReportsWhichUniqueConstraintClashed() throws Exception {
+        signup("emailbob", "bob@example.com").andExpect(status().isOk());
+
+        // The username contains "email"; only the violated constraint may decide the message
+        signup("emailbob", "other-bob@example.com")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Error: Username is already taken!"));
+        signup("robert", "bob@example.com")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Error: Email is already in use!"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void importSkipsInvalidRowsAndKeepsTheRest() throws Exception {
+        String body = "["
+                + "{\"username\":\"importok\",\"email\":\"importok@example.com\",\"password\":\"secret123\"},"
+                + "{\"username\":\"importnamethatiswaytoolong\",\"email\":\"long@example.com\",\"password\":\"secret123\"},"
+                + "{\"username\":\"importbademail\",\"email\":\"not-an-email\",\"password\":\"secret123\"},"
+                + "{\"username\":\"importshort\",\"email\":\"short@example.com\",\"password\":\"123\"}"
+                + "]";
+        MvcResult pending = mockMvc.perform(post("/api/admin/users/import")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value("importok"))
+                .andExpect(jsonPath("$.skipped.length()").value(3));
+        assertThat(userRepository.existsByUsername("importok")).isTrue();
+    }
+
+    private ResultActions signup(String username, String email) throws Exception {
+        String body = "{\"username\":\"" + username + "\",\"email\":\"" + email + "\",\"password\":\"secret123\"}";
+        MvcResult pending = mockMvc.perform(post("/api/auth/signup")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(pending));
+    }
+}
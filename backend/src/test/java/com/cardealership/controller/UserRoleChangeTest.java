@@ -0,0 +1,106 @@
+package com.cardealership.controller;
+
+import com.cardealership.model.User;
+import com.cardealership.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(locations = "classpath:integration-test.properties")
+class UserRoleChangeTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void changingRolesRevokesTokensIssuedWithTheOldRoles() throws Exception {
+        String oldToken = signUpAndSignIn("promoted");
+        mockMvc.perform(get("/api/cars/1/images/status").header(HttpHeaders.AUTHORIZATION, "Bearer " + oldToken))
+                .andExpect(status().isOk());
+        User user = userRepository.findByUsername("promoted").orElseThrow();
+
+        mockMvc.perform(setRoles(user.getId(), "[\"admin\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.roles[0]").value("ROLE_ADMIN"));
+
+        assertThat(userRepository.findByUsername("promoted").orElseThrow().getTokenVersion())
+                .isEqualTo(user.getTokenVersion() + 1);
+        mockMvc.perform(get("/api/cars/1/images/status").header(HttpHeaders.AUTHORIZATION, "Bearer " + oldToken))
+                .andExpect(status().isUnauthorized());
+
+        String newToken = signIn("promoted");
+        mockMvc.perform(get("/api/admin/stats/caches").header(HttpHeaders.AUTHORIZATION, "Bearer " + newToken))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void rejectsUnknownOrMissingRoles() throws Exception {
+        signUpAndSignIn("unchanged");
+        User user = userRepository.findByUsername("unchanged").orElseThrow();
+
+        mockMvc.perform(setRoles(user.getId(), "[\"owner\"]"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(setRoles(user.getId(), "[]"))
+                .andExpect(status().isBadRequest());
+        assertThat(userRepository.findByUsername("unchanged").orElseThrow().getTokenVersion())
+                .isEqualTo(user.getTokenVersion());
+    }
+
+    @Test
+    void missingUserIsNotFound() throws Exception {
+        mockMvc.perform(setRoles(Long.MAX_VALUE, "[\"user\"]"))
+                .andExpect(status().isNotFound());
+    }
+
+    private MockHttpServletRequestBuilder setRoles(Long id, String roles) {
+        return put("/api/admin/users/{id}/roles", id)
+                .with(user("admin").roles("ADMIN"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"roles\":" + roles + "}");
+    }
+
+    private String signUpAndSignIn(String username) throws Exception {
+        String body = "{\"username\":\"" + username + "\",\"email\":\"" + username + "@example.com\",\"password\":\"secret123\"}";
+        MvcResult pending = mockMvc.perform(post("/api/auth/signup").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(pending)).andExpect(status().isOk());
+        return signIn(username);
+    }
+
+    private String signIn(String username) throws Exception {
+        String body = "{\"username\":\"" + username + "\",\"password\":\"secret123\"}";
+        MvcResult pending = mockMvc.perform(post("/api/auth/signin").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andReturn();
+        String response = mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode json = objectMapper.readTree(response);
+        return json.get("accessToken").asText();
+    }
+}
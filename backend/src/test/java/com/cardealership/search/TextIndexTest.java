@@ -0,0 +1,55 @@
+package com.cardealership.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextIndexTest {
+
+    private final TextIndex index = new TextIndex();
+
+    @Test
+    void findsExactPrefixAndFuzzyMatches() {
+        index.index(1, Map.of("toyota", 5, "camry", 5));
+        index.index(2, Map.of("honda", 5, "civic", 5));
+
+        assertThat(index.search("camry", 10)).extracting(TextIndex.Hit::getDocId).containsExactly(1);
+        assertThat(index.search("hon", 10)).extracting(TextIndex.Hit::getDocId).containsExactly(2);
+        assertThat(index.search("toyt", 10)).extracting(TextIndex.Hit::getDocId).containsExactly(1);
+    }
+
+    @Test
+    void reindexingDropsTermsTheDocumentNoLongerUses() {
+        index.index(1, Map.of("toyota", 5, "camry", 5));
+        index.index(1, Map.of("toyota", 5, "corolla", 5));
+
+        assertThat(index.termCount()).isEqualTo(2);
+        assertThat(index.search("camry", 10)).isEmpty();
+        assertThat(index.search("camr", 10)).isEmpty();
+        assertThat(index.search("toyota corolla", 10)).extracting(TextIndex.Hit::getDocId).containsExactly(1);
+    }
+
+    @Test
+    void removingTheLastDocumentOfATermPrunesIt() {
+        index.index(1, Map.of("mustang", 5, "ford", 5));
+        index.index(2, Map.of("ford", 5, "aaaa", 1));
+
+        index.remove(1);
+        index.remove(2);
+
+        assertThat(index.termCount()).isZero();
+        assertThat(index.search("mustng", 10)).isEmpty();
+    }
+
+    @Test
+    void prunedTermIdsAreReused() {
+        for (int round = 0; round < 100; round++) {
+            index.index(1, Map.of("model" + round, 1));
+        }
+
+        assertThat(index.termCount()).isEqualTo(1);
+        assertThat(index.search("model99", 10)).extracting(TextIndex.Hit::getDocId).containsExactly(1);
+    }
+}
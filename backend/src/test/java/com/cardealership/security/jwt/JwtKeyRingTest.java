@@ -0,0 +1,134 @@
+package com.cardealership.security.jwt;
+
+import com.cardealership.security.services.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:integration-test.properties")
+class JwtKeyRingTest {
+
+    private static final String OLD_SECRET = "x".repeat(64);
+    private static final String NEW_SECRET = "y".repeat(64);
+    private static final Path KEYS_FILE = createKeysFile();
+
+    @Autowired
+    private JwtKeyRing keyRing;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @DynamicPropertySource
+    static void keysFile(DynamicPropertyRegistry registry) {
+        registry.add("cardealership.app.jwt-keys-file", KEYS_FILE::toString);
+    }
+
+    @BeforeEach
+    void startOnTheOldKey() throws IOException {
+        writeKeys("active=default\nkey.default=" + OLD_SECRET + "\n");
+    }
+
+    @Test
+    void oldKidVerifiesUntilItsNotAfter() throws IOException {
+        String oldToken = jwtUtils.generateJwtToken(principal());
+        assertThat(kidOf(oldToken)).isEqualTo(JwtKeyRing.DEFAULT_KID);
+
+        writeKeys("active=2024-06\nkey.2024-06=" + NEW_SECRET + "\nkey.default=" + OLD_SECRET
+                + "\nkey.default.not-after=" + Instant.now().plus(1, ChronoUnit.HOURS) + "\n");
+        String newToken = jwtUtils.generateJwtToken(principal());
+
+        assertThat(kidOf(newToken)).isEqualTo("2024-06");
+        assertThat(jwtUtils.verifyJwtToken(newToken)).isNotNull();
+        assertThat(jwtUtils.verifyJwtToken(oldToken)).isNotNull();
+
+        writeKeys("active=2024-06\nkey.2024-06=" + NEW_SECRET + "\nkey.default=" + OLD_SECRET
+                + "\nkey.default.not-after=" + Instant.now().minus(1, ChronoUnit.MINUTES) + "\n");
+
+        assertThat(jwtUtils.verifyJwtToken(oldToken)).isNull();
+        assertThat(jwtUtils.verifyJwtToken(newToken)).isNotNull();
+    }
+
+    @Test
+    void tokenWithoutKidResolvesToTheDefaultKey() {
+        String legacy = Jwts.builder()
+                .setSubject("legacy")
+                .setExpiration(Date.from(Instant.now().plus(1, ChronoUnit.HOURS)))
+                .signWith(Keys.hmacShaKeyFor(OLD_SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS512)
+                .compact();
+
+        Claims claims = jwtUtils.verifyJwtToken(legacy);
+
+        assertThat(claims).isNotNull();
+        assertThat(claims.getSubject()).isEqualTo("legacy");
+    }
+
+    @Test
+    void tokenWithUnknownKidIsRejected() {
+        String token = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, "unknown")
+                .setSubject("stranger")
+                .signWith(Keys.hmacShaKeyFor(OLD_SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS512)
+                .compact();
+
+        assertThat(jwtUtils.verifyJwtToken(token)).isNull();
+    }
+
+    @Test
+    void activeKeyPairsKidAndKeyFromTheSameRing() throws IOException {
+        writeKeys("active=2024-06\nkey.2024-06=" + NEW_SECRET + "\nkey.default=" + OLD_SECRET + "\n");
+
+        JwtKeyRing.ActiveKey active = keyRing.getActiveKey();
+
+        assertThat(active.getKid()).isEqualTo("2024-06");
+        assertThat(active.getKey().getEncoded()).isEqualTo(NEW_SECRET.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeKeys(String content) throws IOException {
+        Files.writeString(KEYS_FILE, content);
+        keyRing.reload();
+    }
+
+    private String kidOf(String token) {
+        return Jwts.parserBuilder().setSigningKeyResolver(keyRing).build()
+                .parseClaimsJws(token).getHeader().getKeyId();
+    }
+
+    private static UserDetailsImpl principal() {
+        return new UserDetailsImpl(1L, "rotation", "rotation@example.com", null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER")), 0);
+    }
+
+    private static Path createKeysFile() {
+        try {
+            Path file = Files.createTempFile("jwt-keys", ".properties");
+            file.toFile().deleteOnExit();
+            Files.writeString(file, "active=default\nkey.default=" + OLD_SECRET + "\n");
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.cardealership.service;
+
+import com.cardealership.SqlStatementCounter;
+import com.cardealership.dto.CarSearchCriteria;
+import com.cardealership.model.Car;
+import com.cardealership.repository.CarRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:integration-test.properties")
+class CarReadModelUpdaterTest {
+
+    private static final AtomicLong VINS = new AtomicLong();
+
+    @Autowired
+    private CarService carService;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private CarTextSearchService carTextSearchService;
+
+    @Autowired
+    private InventorySnapshotService inventorySnapshotService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void committedChangeReloadsTheCarOnceForEveryReadModel() throws Exception {
+        Car car = carService.saveCar(newCar("Lancia", "Delta"), null);
+        assertThat(carTextSearchService.search("lancia", 10)).extracting(Car::getId).contains(car.getId());
+
+        SqlStatementCounter.reset();
+        carService.patchCar(car.getId(), objectMapper.readTree("{\"make\":\"Alpine\"}"), null);
+
+        // One load for the patch, one after commit shared by the text index and the snapshot
+        assertThat(SqlStatementCounter.count("select")).as(String.join("\n", SqlStatementCounter.statements()))
+                .isEqualTo(2);
+        assertThat(carTextSearchService.search("lancia", 10)).extracting(Car::getId).doesNotContain(car.getId());
+        assertThat(carTextSearchService.search("alpine", 10)).extracting(Car::getId).contains(car.getId());
+        assertThat(makeCount("Alpine")).isEqualTo(1);
+        assertThat(makeCount("Lancia")).isZero();
+    }
+
+    @Test
+    void deletedCarLeavesEveryReadModel() {
+        Car car = carService.saveCar(newCar("Saab", "900"), null);
+        assertThat(makeCount("Saab")).isEqualTo(1);
+
+        carService.deleteCar(car.getId(), null);
+
+        assertThat(carTextSearchService.search("saab", 10)).isEmpty();
+        assertThat(makeCount("Saab")).isZero();
+        assertThat(carRepository.existsById(car.getId())).isFalse();
+    }
+
+    private int makeCount(String make) {
+        return inventorySnapshotService.facets(new CarSearchCriteria()).getFacets().get("make").getOrDefault(make, 0);
+    }
+
+    private static Car newCar(String make, String model) {
+        Car car = new Car();
+        car.setMake(make);
+        car.setModel(model);
+        car.setManufacturedYear(1990);
+        car.setPrice(new BigDecimal("15000"));
+        car.setStatus("AVAILABLE");
+        car.setVin(String.format("READ%013d", VINS.incrementAndGet()));
+        return car;
+    }
+}
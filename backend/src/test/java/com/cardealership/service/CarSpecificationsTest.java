@@ -0,0 +1,81 @@
+package com.cardealership.service;
+
+import com.cardealership.SqlStatementCounter;
+import com.cardealership.dto.CarSearchCriteria;
+import com.cardealership.model.Car;
+import com.cardealership.repository.CarRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:integration-test.properties")
+class CarSpecificationsTest {
+
+    private static final AtomicLong VINS = new AtomicLong();
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Car car;
+
+    @BeforeEach
+    void createCar() {
+        Car newCar = new Car();
+        newCar.setMake("Land Rover");
+        newCar.setModel("Defender");
+        newCar.setManufacturedYear(2022);
+        newCar.setPrice(new BigDecimal("61000"));
+        newCar.setFuelType("Diesel");
+        newCar.setTransmission("Automatic");
+        newCar.setStatus("AVAILABLE");
+        newCar.setVin(String.format("SPEC%013d", VINS.incrementAndGet()));
+        car = carRepository.save(newCar);
+    }
+
+    @Test
+    void matchesPrefixesAndAttributesIgnoringCase() {
+        CarSearchCriteria criteria = new CarSearchCriteria();
+        criteria.setMake("land r");
+        criteria.setModel("DEF");
+        criteria.setFuelType(" diesel ");
+        criteria.setTransmission("automatic");
+
+        SqlStatementCounter.reset();
+        List<Car> cars = carRepository.findAll(CarSpecifications.matching(criteria));
+
+        assertThat(cars).extracting(Car::getId).contains(car.getId());
+        String select = SqlStatementCounter.statements().get(0);
+        assertThat(select).contains("make_key like", "model_key like").doesNotContain("upper(");
+    }
+
+    @Test
+    void escapesLikeWildcardsInThePrefix() {
+        CarSearchCriteria criteria = new CarSearchCriteria();
+        criteria.setMake("Land_");
+
+        assertThat(carRepository.findAll(CarSpecifications.matching(criteria)))
+                .extracting(Car::getId).doesNotContain(car.getId());
+    }
+
+    @Test
+    void makePrefixSearchUsesTheKeyIndex() {
+        String plan = jdbcTemplate.queryForObject(
+                "EXPLAIN SELECT id FROM cars WHERE make_key LIKE 'LAND%' ESCAPE '\\' AND model_key LIKE 'DEF%' ESCAPE '\\'",
+                String.class);
+
+        assertThat(plan).containsIgnoringCase("idx_cars_make_model_key");
+    }
+}
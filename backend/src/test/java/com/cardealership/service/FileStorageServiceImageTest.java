@@ -0,0 +1,67 @@
+package com.cardealership.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FileStorageServiceImageTest {
+
+    @TempDir
+    Path uploadDir;
+
+    private FileStorageService fileStorageService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        fileStorageService = new FileStorageService();
+        ReflectionTestUtils.setField(fileStorageService, "uploadDir", uploadDir.toString());
+        ReflectionTestUtils.setField(fileStorageService, "maxDecodedPixels", 16_000_000L);
+        ReflectionTestUtils.setField(fileStorageService, "maxPixels", 100_000_000L);
+        ImageIO.write(new BufferedImage(400, 300, BufferedImage.TYPE_INT_RGB), "png", uploadDir.resolve("car.png").toFile());
+    }
+
+    @Test
+    void writesEveryVariant() throws IOException {
+        Map<ImageVariant, String> variants = fileStorageService.generateVariants("car.png");
+
+        assertThat(variants).containsOnlyKeys(ImageVariant.values());
+        assertThat(ImageIO.read(uploadDir.resolve(variants.get(ImageVariant.FULL)).toFile()).getWidth()).isEqualTo(400);
+    }
+
+    @Test
+    void subsamplesImagesAboveTheDecodeBudget() throws IOException {
+        ReflectionTestUtils.setField(fileStorageService, "maxDecodedPixels", 10_000L);
+
+        Map<ImageVariant, String> variants = fileStorageService.generateVariants("car.png");
+
+        // 120,000 pixels against a 10,000 pixel budget decodes every 4th row and column
+        assertThat(ImageIO.read(uploadDir.resolve(variants.get(ImageVariant.FULL)).toFile()).getWidth()).isEqualTo(100);
+    }
+
+    @Test
+    void rejectsImagesAboveThePixelLimit() {
+        ReflectionTestUtils.setField(fileStorageService, "maxPixels", 10_000L);
+
+        assertThatThrownBy(() -> fileStorageService.generateVariants("car.png"))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("400x300");
+    }
+
+    @Test
+    void skipsFilesThatAreNotImages() throws IOException {
+        Files.writeString(uploadDir.resolve("notes.txt"), "not an image");
+
+        assertThat(fileStorageService.generateVariants("notes.txt")).isEmpty();
+    }
+}
@@ -0,0 +1,62 @@
+package com.cardealership.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileStorageServicePromoteTest {
+
+    @TempDir
+    Path uploadDir;
+
+    private FileStorageService fileStorageService;
+
+    @BeforeEach
+    void setUp() {
+        fileStorageService = new FileStorageService();
+        ReflectionTestUtils.setField(fileStorageService, "uploadDir", uploadDir.toString());
+        ReflectionTestUtils.setField(fileStorageService, "contentAddressed", true);
+    }
+
+    @Test
+    void identicalUploadReusesTheExistingBlob() throws IOException {
+        StoredFile first = fileStorageService.promoteStagedFile(stage("first.jpg", "same bytes"));
+        Path blob = uploadDir.resolve(first.getFilename());
+        FileTime old = FileTime.fromMillis(System.currentTimeMillis() - 86_400_000L);
+        Files.setLastModifiedTime(blob, old);
+        Object inode = Files.getAttribute(blob, "unix:ino");
+
+        Path second = stage("second.jpg", "same bytes");
+        StoredFile duplicate = fileStorageService.promoteStagedFile(second);
+
+        assertThat(duplicate.getFilename()).isEqualTo(first.getFilename());
+        assertThat(second).doesNotExist();
+        // The existing blob is kept, not replaced, and touched so garbage collection sees it in use
+        assertThat(Files.getAttribute(blob, "unix:ino")).isEqualTo(inode);
+        assertThat(Files.getLastModifiedTime(blob)).isGreaterThan(old);
+    }
+
+    @Test
+    void newUploadIsMovedOutOfStaging() throws IOException {
+        Path staged = stage("car.jpg", "unique bytes");
+
+        StoredFile stored = fileStorageService.promoteStagedFile(staged);
+
+        assertThat(staged).doesNotExist();
+        assertThat(uploadDir.resolve(stored.getFilename())).hasContent("unique bytes");
+    }
+
+    private Path stage(String name, String content) throws IOException {
+        Path staging = Files.createDirectories(uploadDir.resolve(FileStorageService.STAGING_DIR));
+        return Files.writeString(staging.resolve(name), content, StandardCharsets.UTF_8);
+    }
+}
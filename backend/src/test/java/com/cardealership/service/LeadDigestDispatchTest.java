@@ -0,0 +1,123 @@
+package com.cardealership.service;
+
+import com.cardealership.dto.LeadDTO;
+import com.cardealership.model.Lead;
+import com.cardealership.model.LeadStatus;
+import com.cardealership.repository.LeadRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:integration-test.properties", properties = {
+        "cardealership.leads.dispatch-interval-ms=3600000",
+        "cardealership.leads.batch-size=3",
+        "cardealership.leads.digest.enabled=true",
+        "cardealership.leads.digest.window-ms=3600000",
+        "cardealership.leads.digest.max-size=3"
+})
+class LeadDigestDispatchTest {
+
+    private static final AtomicLong LEADS = new AtomicLong();
+    private static final TestSmtpServer SMTP = startSmtp();
+
+    @Autowired
+    private LeadService leadService;
+
+    @Autowired
+    private LeadDispatcher leadDispatcher;
+
+    @Autowired
+    private LeadRepository leadRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void mailServer(DynamicPropertyRegistry registry) {
+        registry.add("spring.mail.host", () -> "127.0.0.1");
+        registry.add("spring.mail.port", SMTP::getPort);
+    }
+
+    @AfterAll
+    static void stopSmtp() throws IOException {
+        SMTP.close();
+    }
+
+    @Test
+    void heldDigestsDoNotStarveReadyRecipients() {
+        // The held recipient's leads come first and alone would fill the batch
+        List<Lead> held = submit("held@example.com", 2);
+        List<Lead> full = submit("full@example.com", 3);
+        int before = SMTP.getMessages().size();
+
+        leadDispatcher.dispatch();
+
+        full.forEach(lead -> assertThat(reload(lead).getStatus()).isEqualTo(LeadStatus.SENT));
+        held.forEach(lead -> assertThat(reload(lead).getStatus()).isEqualTo(LeadStatus.PENDING));
+        List<String> sent = SMTP.getMessages().subList(before, SMTP.getMessages().size());
+        assertThat(sent).hasSize(1);
+        assertThat(sent.get(0)).contains("full@example.com");
+
+        // Once the window closes the held leads go out together
+        jdbcTemplate.update("UPDATE leads SET created_at = ? WHERE recipient = ?",
+                LocalDateTime.now().minusHours(2), "held@example.com");
+        leadDispatcher.dispatch();
+
+        held.forEach(lead -> assertThat(reload(lead).getStatus()).isEqualTo(LeadStatus.SENT));
+        sent = SMTP.getMessages().subList(before, SMTP.getMessages().size());
+        assertThat(sent).hasSize(2);
+        assertThat(sent.get(1)).contains("held@example.com");
+    }
+
+    private List<Lead> submit(String recipient, int count) {
+        List<Lead> leads = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Lead lead = leadService.submit(lead());
+            jdbcTemplate.update("UPDATE leads SET recipient = ? WHERE id = ?", recipient, lead.getId());
+            leads.add(lead);
+        }
+        return leads;
+    }
+
+    private LeadDTO lead() {
+        long n = LEADS.incrementAndGet();
+        LeadDTO dto = new LeadDTO();
+        dto.setMake("Skoda");
+        dto.setModel("Fabia");
+        dto.setManufacturedYear(2020);
+        dto.setMileage(40000);
+        dto.setVin(String.format("DIGEST%011d", n));
+        dto.setOwnerName("Digest Owner " + n);
+        dto.setOwnerEmail("digest" + n + "@example.com");
+        dto.setOwnerPhone(String.format("+4478%08d", n));
+        dto.setAskingPrice(9500.0);
+        return dto;
+    }
+
+    private Lead reload(Lead lead) {
+        return leadRepository.findById(lead.getId()).orElseThrow();
+    }
+
+    private static TestSmtpServer startSmtp() {
+        try {
+            return new TestSmtpServer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.cardealership.service;
+
+import com.cardealership.dto.LeadDTO;
+import com.cardealership.model.Lead;
+import com.cardealership.model.LeadStatus;
+import com.cardealership.repository.LeadRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives {@link LeadDispatcher} against a local SMTP stand-in. GreenMail cannot answer RCPT with a
+ * transient failure, which the retry path needs.
+ */
+@SpringBootTest
+@TestPropertySource(locations = "classpath:integration-test.properties", properties = {
+        "cardealership.leads.dispatch-interval-ms=3600000",
+        "cardealership.leads.max-attempts=3",
+        "cardealership.leads.backoff-initial-ms=60000"
+})
+class LeadDispatcherTest {
+
+    private static final String TRY_AGAIN = "451 4.3.0 Try again later";
+    private static final AtomicLong LEADS = new AtomicLong();
+    private static final TestSmtpServer SMTP = startSmtp();
+
+    @Autowired
+    private LeadService leadService;
+
+    @Autowired
+    private LeadDispatcher leadDispatcher;
+
+    @Autowired
+    private LeadRepository leadRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void mailServer(DynamicPropertyRegistry registry) {
+        registry.add("spring.mail.host", () -> "127.0.0.1");
+        registry.add("spring.mail.port", SMTP::getPort);
+    }
+
+    @AfterAll
+    static void stopSmtp() throws IOException {
+        SMTP.close();
+    }
+
+    @BeforeEach
+    void acceptMail() {
+        SMTP.acceptRecipients();
+    }
+
+    @Test
+    void deliversDueLeadAndMarksItSent() {
+        Lead lead = leadService.submit(lead());
+
+        leadDispatcher.dispatch();
+
+        Lead sent = reload(lead);
+        assertThat(sent.getStatus()).isEqualTo(LeadStatus.SENT);
+        assertThat(sent.getAttempts()).isEqualTo(1);
+        assertThat(sent.getSentAt()).isNotNull();
+        assertThat(SMTP.getMessages()).anyMatch(message -> message.contains(lead.getOwnerEmail()));
+    }
+
+    @Test
+    void transientFailureIsRetriedAfterBackoff() {
+        SMTP.rejectRecipients(TRY_AGAIN);
+        Lead lead = leadService.submit(lead());
+        LocalDateTime before = LocalDateTime.now();
+
+        leadDispatcher.dispatch();
+
+        Lead failed = reload(lead);
+        assertThat(failed.getStatus()).isEqualTo(LeadStatus.PENDING);
+        assertThat(failed.getAttempts()).isEqualTo(1);
+        assertThat(failed.getLastError()).isNotBlank();
+        // First retry waits between half and all of the initial backoff
+        assertThat(failed.getNextAttemptAt()).isAfterOrEqualTo(before.plusSeconds(30))
+                .isBefore(LocalDateTime.now().plusSeconds(61));
+
+        // Not due yet, so another poll leaves it alone
+        leadDispatcher.dispatch();
+        assertThat(reload(lead).getAttempts()).isEqualTo(1);
+
+        SMTP.acceptRecipients();
+        makeDue(lead);
+        leadDispatcher.dispatch();
+        assertThat(reload(lead).getStatus()).isEqualTo(LeadStatus.SENT);
+        assertThat(reload(lead).getAttempts()).isEqualTo(2);
+    }
+
+    @Test
+    void leadIsAbandonedAfterMaxAttempts() {
+        SMTP.rejectRecipients(TRY_AGAIN);
+        Lead lead = leadService.submit(lead());
+
+        for (int attempt = 1; attempt < 3; attempt++) {
+            leadDispatcher.dispatch();
+            assertThat(reload(lead).getStatus()).isEqualTo(LeadStatus.PENDING);
+            assertThat(reload(lead).getAttempts()).isEqualTo(attempt);
+            makeDue(lead);
+        }
+        leadDispatcher.dispatch();
+
+        Lead dead = reload(lead);
+        assertThat(dead.getStatus()).isEqualTo(LeadStatus.DEAD);
+        assertThat(dead.getAttempts()).isEqualTo(3);
+        assertThat(dead.getLastError()).isNotBlank();
+
+        makeDue(lead);
+        leadDispatcher.dispatch();
+        assertThat(reload(lead).getAttempts()).isEqualTo(3);
+    }
+
+    private LeadDTO lead() {
+        long n = LEADS.incrementAndGet();
+        LeadDTO dto = new LeadDTO();
+        dto.setMake("Skoda");
+        dto.setModel("Octavia");
+        dto.setManufacturedYear(2019);
+        dto.setMileage(60000);
+        dto.setVin(String.format("LEAD%013d", n));
+        dto.setOwnerName("Owner " + n);
+        dto.setOwnerEmail("owner" + n + "@example.com");
+        dto.setOwnerPhone(String.format("+4479%08d", n));
+        dto.setAskingPrice(12500.0);
+        return dto;
+    }
+
+    private Lead reload(Lead lead) {
+        return leadRepository.findById(lead.getId()).orElseThrow();
+    }
+
+    private void makeDue(Lead lead) {
+        jdbcTemplate.update("UPDATE leads SET next_attempt_at = ? WHERE id = ?",
+                LocalDateTime.now().minusSeconds(1), lead.getId());
+    }
+
+    private static TestSmtpServer startSmtp() {
+        try {
+            return new TestSmtpServer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
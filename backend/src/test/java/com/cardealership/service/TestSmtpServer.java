@@ -0,0 +1,103 @@
+package com.cardealership.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A minimal SMTP stand-in on a loopback port that records what it accepts and can answer every
+ * RCPT with a chosen reply, such as a transient {@code 451}.
+ */
+final class TestSmtpServer implements AutoCloseable {
+    private static final String ACCEPT = "250 OK";
+
+    private final ServerSocket serverSocket;
+    private final List<String> messages = new CopyOnWriteArrayList<>();
+    private volatile String recipientReply = ACCEPT;
+
+    TestSmtpServer() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptLoop, "test-smtp");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    void rejectRecipients(String reply) {
+        recipientReply = reply;
+    }
+
+    void acceptRecipients() {
+        recipientReply = ACCEPT;
+    }
+
+    List<String> getMessages() {
+        return List.copyOf(messages);
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try (Socket socket = serverSocket.accept()) {
+                converse(socket);
+            } catch (IOException e) {
+                // Closed by the test or the client hung up
+            }
+        }
+    }
+
+    private void converse(Socket socket) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+        Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII);
+        reply(out, "220 localhost test SMTP");
+        String line;
+        while ((line = in.readLine()) != null) {
+            String command = line.length() > 4 ? line.substring(0, 4) : line;
+            switch (command.toUpperCase(Locale.ROOT)) {
+                case "EHLO", "HELO" -> reply(out, "250 localhost");
+                case "MAIL", "RSET", "NOOP" -> reply(out, ACCEPT);
+                case "RCPT" -> reply(out, recipientReply);
+                case "DATA" -> {
+                    reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    messages.add(readData(in));
+                    reply(out, "250 OK queued");
+                }
+                case "QUIT" -> {
+                    reply(out, "221 Bye");
+                    return;
+                }
+                default -> reply(out, "502 Command not implemented");
+            }
+        }
+    }
+
+    private String readData(BufferedReader in) throws IOException {
+        StringBuilder data = new StringBuilder();
+        String line;
+        while ((line = in.readLine()) != null && !line.equals(".")) {
+            data.append(line.startsWith("..") ? line.substring(1) : line).append('\n');
+        }
+        return data.toString();
+    }
+
+    private void reply(Writer out, String reply) throws IOException {
+        out.write(reply + "\r\n");
+        out.flush();
+    }
+}
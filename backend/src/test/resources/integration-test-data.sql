@@ -0,0 +1,4 @@
+-- data.sql seeds rows with explicit ids; move the identity columns past them
+ALTER TABLE cars ALTER COLUMN id RESTART WITH 1000;
+ALTER TABLE car_images ALTER COLUMN id RESTART WITH 1000;
+ALTER TABLE users ALTER COLUMN id RESTART WITH 1000;